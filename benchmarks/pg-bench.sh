@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Jalankan script benchmark SQL (benchmarks/*.sql) di Postgres docker-compose, hasil disimpan ke file.
+#
+# Pakai: benchmarks/pg-bench.sh <script.sql> [psql -v var=nilai ...]
+#   mis. benchmarks/pg-bench.sh benchmarks/uuid-index.sql -v rows=5000000
+# Butuh: docker, container backend-auth-postgres sudah jalan (docker-compose up -d backend-auth-postgres)
+# Hasil: benchmarks/results/{nama script}-{timestamp}.txt
+set -euo pipefail
+
+if [ $# -lt 1 ]; then
+  echo "Pakai: $0 <script.sql> [psql -v var=nilai ...]" >&2
+  exit 1
+fi
+
+SCRIPT="$1"
+shift
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+RESULT="$ROOT/benchmarks/results/$(basename "$SCRIPT" .sql)-$(date +%Y%m%d-%H%M%S).txt"
+CONTAINER="${PG_CONTAINER:-backend-auth-postgres}"
+
+{
+  echo "$(basename "$SCRIPT") $(date -Iseconds) $*"
+  docker exec "$CONTAINER" psql -U postgres -d library-app -Atc "SELECT version()"
+  docker exec "$CONTAINER" psql -U postgres -d library-app -Atc "SHOW shared_buffers"
+  echo
+  docker exec -i "$CONTAINER" psql -U postgres -d library-app -X -v ON_ERROR_STOP=1 "$@" -f - < "$SCRIPT"
+} | tee "$RESULT"
+
+echo "Hasil: $RESULT"
@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+# Time-to-ready: waktu dari `docker run` sampai /actuator/health/readiness = UP (JVM start + refresh context + ready),
+# dibandingkan antara image biasa (Dockerfile) dan image AOT + AppCDS (Dockerfile.cds).
+#
+# Pakai: benchmarks/startup.sh [jumlah run per image, default 5]
+# Butuh: docker, curl, mvn. Postgres & Dragonfly dari docker-compose harus sudah jalan
+#        (docker-compose up -d backend-auth-postgres dragonfly jaeger)
+# Hasil: benchmarks/results/startup-{timestamp}.txt
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT=18080
+MANAGEMENT_PORT=18081
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+RESULT="$ROOT/benchmarks/results/startup-$(date +%Y%m%d-%H%M%S).txt"
+NETWORK="$(docker network ls --filter name=backend-network --format '{{.Name}}' | head -1)"
+
+if [ -z "$NETWORK" ]; then
+  echo "Network backend-network tidak ditemukan, jalankan docker-compose up -d backend-auth-postgres dragonfly jaeger" >&2
+  exit 1
+fi
+
+cd "$ROOT"
+mvn -B -q -Pcds clean package -DskipTests
+docker build -q -t library-service:baseline -f Dockerfile . >/dev/null
+docker build -q -t library-service:cds -f Dockerfile.cds . >/dev/null
+
+measure() {
+  local image="$1"
+  local name="startup-bench-$$"
+  local start end
+  start=$(date +%s%N)
+  docker run -d --rm --name "$name" --network "$NETWORK" -p "$PORT:8080" -p "$MANAGEMENT_PORT:8081" \
+    -e SPRING_PROFILES_ACTIVE=docker "$image" >/dev/null
+  until curl -fs "http://localhost:$MANAGEMENT_PORT/actuator/health/readiness" 2>/dev/null | grep -q '"UP"'; do
+    sleep 0.05
+  done
+  end=$(date +%s%N)
+  # Baris "Started ... in X seconds (process running for Y)" dari log Spring Boot
+  local started
+  started=$(docker logs "$name" 2>&1 | grep -o 'Started LibraryServiceApplication in [0-9.]* seconds' | head -1 || true)
+  docker stop "$name" >/dev/null
+  echo "$(( (end - start) / 1000000 )) ms | $started"
+}
+
+{
+  echo "Startup benchmark $(date -Iseconds), $RUNS run per image"
+  echo "JVM: $(docker run --rm --entrypoint java library-service:cds -version 2>&1 | head -1)"
+  for image in library-service:baseline library-service:cds; do
+    echo
+    echo "== $image"
+    times=()
+    for i in $(seq 1 "$RUNS"); do
+      line=$(measure "$image")
+      echo "run $i: $line"
+      times+=("${line%% ms*}")
+    done
+    sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+    echo "median: ${sorted[$(( RUNS / 2 ))]} ms, min: ${sorted[0]} ms, max: ${sorted[$(( RUNS - 1 ))]} ms"
+  done
+} | tee "$RESULT"
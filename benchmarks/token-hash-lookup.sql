@@ -0,0 +1,122 @@
+-- Lookup token sekali pakai sebelum vs sesudah V3__hash_one_time_tokens.sql:
+-- - lama: token VARCHAR(255) UNIQUE (plaintext 64 karakter base64url)
+-- - baru: token_hash BYTEA UNIQUE (SHA-256, 32 byte), query = OneTimeTokenRepository.findByTokenHash
+-- Dua tabel dengan isi token yang sama, dibandingkan: ukuran index unique (pg_relation_size),
+-- EXPLAIN (ANALYZE, BUFFERS) 1 lookup, dan durasi :lookups lookup acak per variant.
+-- Di akhir: ukuran index & plan findByTokenHash di tabel asli (read-only).
+--
+-- Pakai: benchmarks/pg-bench.sh benchmarks/token-hash-lookup.sql -v rows=1000000 -v lookups=100000
+-- Semua objek di schema token_bench, dihapus di akhir.
+
+\if :{?rows}
+\else
+\set rows 1000000
+\endif
+\if :{?lookups}
+\else
+\set lookups 100000
+\endif
+
+DROP SCHEMA IF EXISTS token_bench CASCADE;
+CREATE SCHEMA token_bench;
+
+-- Layout sebelum V3
+CREATE TABLE token_bench.plain_tokens
+(
+    id         UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    token      VARCHAR(255) NOT NULL,
+    used       BOOLEAN   DEFAULT FALSE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP    NOT NULL,
+    CONSTRAINT plain_tokens_token_key UNIQUE (token)
+);
+
+-- Layout sesudah V3
+CREATE TABLE token_bench.hashed_tokens
+(
+    id         UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    token_hash BYTEA     NOT NULL,
+    used       BOOLEAN   DEFAULT FALSE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    CONSTRAINT hashed_tokens_token_hash_key UNIQUE (token_hash),
+    CONSTRAINT hashed_tokens_token_hash_len CHECK (octet_length(token_hash) = 32)
+);
+
+-- Token deterministik per nomor baris (hasil bisa diulang), 64 karakter base64url seperti TokenGuard.issue
+CREATE FUNCTION token_bench.token(n BIGINT) RETURNS TEXT AS
+$$
+SELECT translate(substr(encode(sha256(convert_to(n::text, 'UTF8')) || sha256(convert_to(n || ':', 'UTF8')), 'base64'),
+                        1, 64), '+/', '-_')
+$$ LANGUAGE sql IMMUTABLE;
+
+INSERT INTO token_bench.plain_tokens (token, expires_at)
+SELECT token_bench.token(g), now() + interval '1 day'
+FROM generate_series(1, :rows) g;
+
+-- Digest sama dengan migrasi V3
+INSERT INTO token_bench.hashed_tokens (token_hash, expires_at)
+SELECT sha256(convert_to(token, 'UTF8')), expires_at
+FROM token_bench.plain_tokens;
+
+VACUUM ANALYZE token_bench.plain_tokens;
+VACUUM ANALYZE token_bench.hashed_tokens;
+
+\echo == ukuran index unique (:rows rows)
+SELECT 'token VARCHAR'                                                      AS variant,
+       pg_size_pretty(pg_relation_size('token_bench.plain_tokens_token_key')) AS index_size,
+       pg_size_pretty(pg_relation_size('token_bench.plain_tokens'))           AS table_size
+UNION ALL
+SELECT 'token_hash BYTEA',
+       pg_size_pretty(pg_relation_size('token_bench.hashed_tokens_token_hash_key')),
+       pg_size_pretty(pg_relation_size('token_bench.hashed_tokens'));
+
+-- Probe di luar loop: yang diukur hanya lookup index, bukan pembuatan token/digest
+CREATE TABLE token_bench.probes AS
+SELECT token_bench.token(n) AS token, sha256(convert_to(token_bench.token(n), 'UTF8')) AS token_hash
+FROM (SELECT 1 + floor(random() * :rows)::bigint AS n FROM generate_series(1, :lookups)) p;
+
+SELECT token, encode(token_hash, 'hex') AS token_hash_hex
+FROM token_bench.probes
+LIMIT 1 \gset probe_
+
+\echo == EXPLAIN lookup token (sebelum V3)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM token_bench.plain_tokens WHERE token = :'probe_token';
+
+\echo == EXPLAIN lookup token_hash (sesudah V3)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM token_bench.hashed_tokens WHERE token_hash = decode(:'probe_token_hash_hex', 'hex');
+
+\echo == :lookups lookup acak per variant
+DO
+$$
+DECLARE
+    probe   RECORD;
+    hits    INT;
+    started TIMESTAMP;
+BEGIN
+    started := clock_timestamp();
+    FOR probe IN SELECT token FROM token_bench.probes LOOP
+        SELECT count(*) INTO hits FROM token_bench.plain_tokens WHERE token = probe.token;
+    END LOOP;
+    RAISE NOTICE 'token VARCHAR    : %', clock_timestamp() - started;
+
+    started := clock_timestamp();
+    FOR probe IN SELECT token_hash FROM token_bench.probes LOOP
+        SELECT count(*) INTO hits FROM token_bench.hashed_tokens WHERE token_hash = probe.token_hash;
+    END LOOP;
+    RAISE NOTICE 'token_hash BYTEA : %', clock_timestamp() - started;
+END
+$$;
+
+DROP SCHEMA token_bench CASCADE;
+
+\echo == tabel asli
+SELECT indexrelid::regclass AS index, pg_size_pretty(pg_relation_size(indexrelid)) AS size
+FROM pg_index
+WHERE indrelid IN ('verification_tokens'::regclass, 'password_reset_tokens'::regclass)
+ORDER BY 1;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM verification_tokens WHERE token_hash = decode(:'probe_token_hash_hex', 'hex');
@@ -0,0 +1,97 @@
+-- Insert throughput & bloat index primary key: UUIDv7 (UuidV7, urut waktu) vs UUID v4 random.
+-- Dua tabel identik, diisi per batch (1 commit per batch, seperti insert aplikasi), lalu dibandingkan:
+-- - durasi & WAL yang ditulis selama insert
+-- - ukuran index pkey, avg_leaf_density & leaf_fragmentation (pgstatindex) sebelum dan sesudah REINDEX
+--
+-- Pakai: benchmarks/pg-bench.sh benchmarks/uuid-index.sql -v rows=5000000 -v batch=1000
+-- Perbedaan baru terlihat jika index v4 jauh lebih besar dari shared_buffers (rows cukup besar).
+-- Semua objek di schema uuid_bench, dihapus di akhir; extension pgstattuple dibiarkan terpasang.
+
+\if :{?rows}
+\else
+\set rows 2000000
+\endif
+\if :{?batch}
+\else
+\set batch 1000
+\endif
+
+CREATE EXTENSION IF NOT EXISTS pgstattuple;
+DROP SCHEMA IF EXISTS uuid_bench CASCADE;
+CREATE SCHEMA uuid_bench;
+
+-- Layout sama dengan UuidV7.generate(): 48 bit epoch millis, version 7, sisanya random
+CREATE FUNCTION uuid_bench.uuid_v7() RETURNS uuid AS
+$$
+SELECT encode(set_bit(set_bit(overlay(uuid_send(gen_random_uuid())
+                                      PLACING substring(int8send((extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                                      FROM 1 FOR 6), 52, 1), 53, 1), 'hex')::uuid
+$$ LANGUAGE sql VOLATILE;
+
+CREATE TABLE uuid_bench.v4
+(
+    id         UUID PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    payload    TEXT      NOT NULL
+);
+CREATE TABLE uuid_bench.v7
+(
+    id         UUID PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    payload    TEXT      NOT NULL
+);
+
+CREATE TABLE uuid_bench.result
+(
+    variant   TEXT PRIMARY KEY,
+    elapsed   INTERVAL,
+    wal_bytes NUMERIC
+);
+
+CREATE PROCEDURE uuid_bench.fill(p_variant TEXT, p_generator TEXT, total INT, batch INT)
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    started   TIMESTAMP := clock_timestamp();
+    lsn_start pg_lsn    := pg_current_wal_lsn();
+BEGIN
+    FOR offset_ IN 0..total - 1 BY batch LOOP
+        EXECUTE format('INSERT INTO uuid_bench.%I (id, payload) SELECT %s, md5(g::text) FROM generate_series(1, $1) g',
+                       p_variant, p_generator)
+            USING least(batch, total - offset_);
+        COMMIT;
+    END LOOP;
+    INSERT INTO uuid_bench.result
+    VALUES (p_variant, clock_timestamp() - started, pg_wal_lsn_diff(pg_current_wal_lsn(), lsn_start));
+END
+$$;
+
+\echo == insert :rows rows, batch :batch
+CALL uuid_bench.fill('v4', 'gen_random_uuid()', :rows, :batch);
+CALL uuid_bench.fill('v7', 'uuid_bench.uuid_v7()', :rows, :batch);
+SELECT variant,
+       elapsed,
+       round(:rows / extract(epoch FROM elapsed))::bigint AS rows_per_sec,
+       pg_size_pretty(wal_bytes)                           AS wal
+FROM uuid_bench.result
+ORDER BY variant;
+
+\echo == index pkey setelah insert
+SELECT 'v4' AS variant, pg_size_pretty(pg_relation_size('uuid_bench.v4_pkey')) AS size, s.avg_leaf_density, s.leaf_fragmentation
+FROM pgstatindex('uuid_bench.v4_pkey') s
+UNION ALL
+SELECT 'v7', pg_size_pretty(pg_relation_size('uuid_bench.v7_pkey')), s.avg_leaf_density, s.leaf_fragmentation
+FROM pgstatindex('uuid_bench.v7_pkey') s;
+
+-- Ukuran setelah REINDEX = ukuran ideal; selisihnya terhadap tabel di atas = bloat akibat page split
+REINDEX INDEX uuid_bench.v4_pkey;
+REINDEX INDEX uuid_bench.v7_pkey;
+
+\echo == index pkey setelah REINDEX
+SELECT 'v4' AS variant, pg_size_pretty(pg_relation_size('uuid_bench.v4_pkey')) AS size, s.avg_leaf_density, s.leaf_fragmentation
+FROM pgstatindex('uuid_bench.v4_pkey') s
+UNION ALL
+SELECT 'v7', pg_size_pretty(pg_relation_size('uuid_bench.v7_pkey')), s.avg_leaf_density, s.leaf_fragmentation
+FROM pgstatindex('uuid_bench.v7_pkey') s;
+
+DROP SCHEMA uuid_bench CASCADE;
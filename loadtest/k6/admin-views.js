@@ -0,0 +1,39 @@
+// View admin: daftar rent aktif & overdue (ACTIVE_RENTS baris, join user + buku).
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import { authHeaders, BASE_URL, login, summary, SUMMARY_TREND_STATS } from './lib/common.js';
+
+export const options = {
+  summaryTrendStats: SUMMARY_TREND_STATS,
+  scenarios: {
+    admin: {
+      executor: 'constant-vus',
+      vus: parseInt(__ENV.VUS || '10'),
+      duration: __ENV.DURATION || '5m',
+    },
+  },
+  thresholds: {
+    'http_req_duration{name:GET /rent/admin/active}': ['p(95)<3000'],
+    'http_req_duration{name:GET /rent/admin/overdue}': ['p(95)<3000'],
+    http_req_failed: ['rate<0.01'],
+  },
+};
+
+let token;
+
+export default function () {
+  if (!token) {
+    // Admin dari DataSeeder
+    token = login('dummyadmin@gmail.com');
+  }
+
+  const active = http.get(`${BASE_URL}/rent/admin/active`, authHeaders(token, 'GET /rent/admin/active'));
+  check(active, { 'active 200': (r) => r.status === 200 });
+
+  const overdue = http.get(`${BASE_URL}/rent/admin/overdue`, authHeaders(token, 'GET /rent/admin/overdue'));
+  check(overdue, { 'overdue 200': (r) => r.status === 200 });
+
+  sleep(1);
+}
+
+export const handleSummary = summary('admin-views');
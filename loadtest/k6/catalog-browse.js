@@ -0,0 +1,41 @@
+// Browsing katalog: detail buku acak, sesekali list buku tersedia.
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import { authHeaders, bookId, BASE_URL, BOOKS, login, randomInt, summary, userEmail, USERS, ACTIVE_RENTS, SUMMARY_TREND_STATS } from './lib/common.js';
+
+export const options = {
+  summaryTrendStats: SUMMARY_TREND_STATS,
+  scenarios: {
+    browse: {
+      executor: 'constant-vus',
+      vus: parseInt(__ENV.VUS || '200'),
+      duration: __ENV.DURATION || '5m',
+    },
+  },
+  thresholds: {
+    'http_req_duration{name:GET /books/{id}}': ['p(95)<100', 'p(99)<250'],
+    'http_req_duration{name:GET /books}': ['p(95)<2000'],
+    http_req_failed: ['rate<0.01'],
+  },
+};
+
+let token;
+
+export default function () {
+  if (!token) {
+    token = login(userEmail(randomInt(ACTIVE_RENTS * 2, USERS)));
+  }
+
+  const detail = http.get(`${BASE_URL}/books/${bookId(randomInt(0, BOOKS))}`, authHeaders(token, 'GET /books/{id}'));
+  check(detail, { 'detail 200': (r) => r.status === 200 });
+
+  // List penuh (tanpa paging) mahal, cukup ~1% iterasi
+  if (Math.random() < 0.01) {
+    const list = http.get(`${BASE_URL}/books`, authHeaders(token, 'GET /books'));
+    check(list, { 'list 200': (r) => r.status === 200 });
+  }
+
+  sleep(Math.random() * 0.5);
+}
+
+export const handleSummary = summary('catalog-browse');
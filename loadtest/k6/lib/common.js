@@ -0,0 +1,64 @@
+// Helper bersama untuk semua skenario k6.
+// Data diasumsikan dari BulkDataSeeder (profile loadtest): loaduser{n}@loadtest.local / Password1.
+import http from 'k6/http';
+import { check, fail } from 'k6';
+import { textSummary } from 'https://jslib.k6.io/k6-summary/0.0.2/index.js';
+
+export const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+export const USERS = parseInt(__ENV.USERS || '1000000');
+export const BOOKS = parseInt(__ENV.BOOKS || '50000');
+export const ACTIVE_RENTS = parseInt(__ENV.ACTIVE_RENTS || '10000');
+export const PASSWORD = 'Password1';
+
+const BASE_MILLIS = 1700000000000n;
+const TABLE_USER = 1n;
+const TABLE_BOOK = 2n;
+
+// Sama dengan BulkDataSeeder.seededId: contoh book 42 = 018bcfe5-682a-7002-8000-00000000002a
+export function seededId(table, n) {
+  const index = BigInt(n);
+  const msb = ((BASE_MILLIS + index) << 16n) | 0x7000n | table;
+  const lsb = (1n << 63n) | index;
+  const hex = msb.toString(16).padStart(16, '0') + lsb.toString(16).padStart(16, '0');
+  return `${hex.slice(0, 8)}-${hex.slice(8, 12)}-${hex.slice(12, 16)}-${hex.slice(16, 20)}-${hex.slice(20)}`;
+}
+
+export const userId = (n) => seededId(TABLE_USER, n);
+export const bookId = (n) => seededId(TABLE_BOOK, n);
+export const userEmail = (n) => `loaduser${n}@loadtest.local`;
+
+export function randomInt(min, maxExclusive) {
+  return min + Math.floor(Math.random() * (maxExclusive - min));
+}
+
+export function login(email, password = PASSWORD) {
+  const res = http.post(`${BASE_URL}/auth/login`, JSON.stringify({ email, password }), {
+    headers: { 'Content-Type': 'application/json' },
+    tags: { name: 'POST /auth/login' },
+  });
+  if (!check(res, { 'login 200': (r) => r.status === 200 })) {
+    fail(`login ${email} gagal: ${res.status}`);
+  }
+  return res.json('data.token');
+}
+
+export function authHeaders(token, name) {
+  return { headers: { Authorization: `Bearer ${token}`, 'Content-Type': 'application/json' }, tags: { name } };
+}
+
+// Ringkasan di stdout + JSON di /results (atau RESULTS_DIR) untuk dibandingkan antar rilis.
+// Nama file: {skenario}-{RELEASE}-{timestamp}.json
+export function summary(scenario) {
+  return (data) => {
+    const dir = __ENV.RESULTS_DIR || '/results';
+    const release = __ENV.RELEASE || 'local';
+    const stamp = new Date().toISOString().replace(/[:.]/g, '-');
+    return {
+      stdout: textSummary(data, { indent: ' ', enableColors: true }),
+      [`${dir}/${scenario}-${release}-${stamp}.json`]: JSON.stringify(data, null, 2),
+    };
+  };
+}
+
+// Persentil yang dilaporkan di summary
+export const SUMMARY_TREND_STATS = ['avg', 'min', 'med', 'p(90)', 'p(95)', 'p(99)', 'max'];
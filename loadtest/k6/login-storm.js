@@ -0,0 +1,31 @@
+// Login storm: banyak user berbeda login bersamaan (BCrypt + insert audit + Redis session/refresh).
+import { login, randomInt, summary, userEmail, USERS, ACTIVE_RENTS, SUMMARY_TREND_STATS } from './lib/common.js';
+
+export const options = {
+  summaryTrendStats: SUMMARY_TREND_STATS,
+  scenarios: {
+    login_storm: {
+      executor: 'ramping-arrival-rate',
+      startRate: 10,
+      timeUnit: '1s',
+      preAllocatedVUs: 100,
+      maxVUs: 500,
+      stages: [
+        { duration: '1m', target: parseInt(__ENV.RATE || '200') },
+        { duration: '3m', target: parseInt(__ENV.RATE || '200') },
+        { duration: '30s', target: 0 },
+      ],
+    },
+  },
+  thresholds: {
+    'http_req_duration{name:POST /auth/login}': ['p(95)<500', 'p(99)<1000'],
+    http_req_failed: ['rate<0.01'],
+  },
+};
+
+export default function () {
+  // User di bawah ACTIVE_RENTS dipakai skenario rent, hindari supaya tidak saling ganggu
+  login(userEmail(randomInt(ACTIVE_RENTS * 2, USERS)));
+}
+
+export const handleSummary = summary('login-storm');
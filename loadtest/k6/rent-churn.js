@@ -0,0 +1,43 @@
+// Rent/return churn: setiap VU punya 1 user & 1 buku sendiri (tidak ada konflik antar VU),
+// pinjam lalu kembalikan berulang-ulang.
+import http from 'k6/http';
+import { check } from 'k6';
+import { authHeaders, bookId, BASE_URL, login, summary, userEmail, ACTIVE_RENTS, SUMMARY_TREND_STATS } from './lib/common.js';
+
+const VUS = parseInt(__ENV.VUS || '100');
+
+export const options = {
+  summaryTrendStats: SUMMARY_TREND_STATS,
+  scenarios: {
+    churn: {
+      executor: 'constant-vus',
+      vus: VUS,
+      duration: __ENV.DURATION || '5m',
+    },
+  },
+  thresholds: {
+    'http_req_duration{name:POST /rent}': ['p(95)<300'],
+    'http_req_duration{name:POST /rent/return}': ['p(95)<300'],
+    checks: ['rate>0.99'],
+  },
+};
+
+let token;
+
+export default function () {
+  // Pool user/buku churn: index ACTIVE_RENTS..ACTIVE_RENTS+VUS (tersedia, tanpa rent aktif setelah seed)
+  const index = ACTIVE_RENTS + __VU - 1;
+  if (!token) {
+    token = login(userEmail(index));
+  }
+
+  const rent = http.post(`${BASE_URL}/rent`, JSON.stringify({ bookId: bookId(index), days: 7 }),
+    authHeaders(token, 'POST /rent'));
+  check(rent, { 'rent 200': (r) => r.status === 200 && r.json('success') === true });
+
+  const today = new Date().toISOString().slice(0, 10);
+  const ret = http.post(`${BASE_URL}/rent/return?date=${today}`, null, authHeaders(token, 'POST /rent/return'));
+  check(ret, { 'return 200': (r) => r.status === 200 && r.json('success') === true });
+}
+
+export const handleSummary = summary('rent-churn');
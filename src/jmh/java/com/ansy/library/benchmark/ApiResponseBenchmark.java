@@ -0,0 +1,59 @@
+package com.ansy.library.benchmark;
+
+import com.ansy.library.config.JacksonConfig;
+import com.ansy.library.dto.ApiResponse;
+import com.ansy.library.dto.BookDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Pembuatan envelope ApiResponse + serialisasi ke byte JSON (seperti di response HTTP).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiResponseBenchmark {
+
+    private ObjectMapper mapper;
+    private List<BookDto> books;
+
+    @Setup
+    public void setup() {
+        mapper = new ObjectMapper().findAndRegisterModules().registerModule(new JacksonConfig().blackbirdModule());
+        books = IntStream.range(0, 20)
+                .mapToObj(i -> BookDto.builder().id(UUID.randomUUID()).title("Book " + i).author("Author " + i).build())
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] successWithoutData() throws Exception {
+        return mapper.writeValueAsBytes(ApiResponse.success("Berhasil logout"));
+    }
+
+    @Benchmark
+    public byte[] successWithBookList() throws Exception {
+        return mapper.writeValueAsBytes(ApiResponse.success("Berhasil mendapatkan daftar buku", books));
+    }
+
+    @Benchmark
+    public byte[] error() throws Exception {
+        return mapper.writeValueAsBytes(ApiResponse.error(401, "Session tidak valid atau kadaluwarsa"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.ansy.library.benchmark;
+
+import com.ansy.library.config.AppProperties;
+import com.ansy.library.security.JwtKeyManager;
+import com.ansy.library.service.JwtService;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+
+/**
+ * Bean service yang dirakit manual (tanpa Spring context, tanpa Redis) untuk benchmark.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static AppProperties properties() {
+        AppProperties properties = new AppProperties();
+        properties.setJwtExpiration(3600L);
+        return properties;
+    }
+
+    /**
+     * JwtService dengan 1 key ES256 in-memory (JwtKeyManager tidak membaca Redis).
+     */
+    static JwtService jwtService() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair pair = generator.generateKeyPair();
+        JwtKeyManager.SigningKey key = new JwtKeyManager.SigningKey("0190f3a2-7c1e-7b52-9d0e-3f1a2b4c5d6e",
+                Instant.now(), pair.getPrivate(), (ECPublicKey) pair.getPublic());
+
+        AppProperties properties = properties();
+        JwtKeyManager keyManager = new JwtKeyManager(null, null, properties) {
+            @Override
+            public SigningKey currentKey() {
+                return key;
+            }
+
+            @Override
+            public ECPublicKey verificationKey(String kid) {
+                return key.kid().equals(kid) ? key.publicKey() : null;
+            }
+        };
+
+        JwtService jwtService = new JwtService(properties, keyManager);
+        jwtService.init();
+        return jwtService;
+    }
+}
@@ -0,0 +1,73 @@
+package com.ansy.library.benchmark;
+
+import com.ansy.library.config.AppTracing;
+import com.ansy.library.config.MessageCatalog;
+import com.ansy.library.security.JwtAuthenticationFilter;
+import com.ansy.library.service.JwtService;
+import com.ansy.library.service.RedisSessionService;
+import io.micrometer.tracing.Tracer;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAuthenticationFilter per request terautentikasi: verifikasi token, cek session
+ * (Redis di-stub, latency jaringan tidak ikut diukur), set SecurityContext.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setup() throws Exception {
+        JwtService jwtService = BenchmarkFixtures.jwtService();
+        RedisSessionService sessions = new RedisSessionService(null, null, null) {
+            @Override
+            public boolean sessionExists(UUID userId, String sessionId) {
+                return true;
+            }
+        };
+        filter = new JwtAuthenticationFilter(jwtService, sessions, new MessageCatalog(), new AppTracing(Tracer.NOOP));
+
+        Instant now = Instant.now();
+        authorization = "Bearer " + jwtService.generateToken(UUID.randomUUID(), "USER",
+                UUID.randomUUID().toString(), "en", now, now.plusSeconds(86_400));
+    }
+
+    @Benchmark
+    public int authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/books");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,79 @@
+package com.ansy.library.benchmark;
+
+import com.ansy.library.security.AccessTokenClaims;
+import com.ansy.library.security.FastJwtVerifier;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse access token di filter: jjwt + Jackson (Claims map) vs FastJwtVerifier.
+ * Lihat gc.alloc.rate.norm (byte per op) dari profiler gc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtParseBenchmark {
+
+    private String token;
+    private JwtParser jjwtParser;
+    private FastJwtVerifier fastVerifier;
+
+    @Setup
+    public void setup() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+
+        Instant now = Instant.now();
+        token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, "bench-kid")
+                .claim("uid", UUID.randomUUID().toString())
+                .claim("role", "USER")
+                .claim("sid", UUID.randomUUID().toString())
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plusSeconds(86_400)))
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+
+        jjwtParser = Jwts.parserBuilder().setSigningKey(keyPair.getPublic()).build();
+        fastVerifier = new FastJwtVerifier(kid -> keyPair.getPublic(), null);
+    }
+
+    @Benchmark
+    public void jjwt(Blackhole bh) {
+        Claims claims = jjwtParser.parseClaimsJws(token).getBody();
+        bh.consume(UUID.fromString(claims.get("uid", String.class)));
+        bh.consume(claims.get("role", String.class));
+        bh.consume(claims.get("sid", String.class));
+    }
+
+    @Benchmark
+    public AccessTokenClaims fastPath() {
+        return fastVerifier.verify(token, System.currentTimeMillis());
+    }
+}
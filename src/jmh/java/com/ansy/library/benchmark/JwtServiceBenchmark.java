@@ -0,0 +1,61 @@
+package com.ansy.library.benchmark;
+
+import com.ansy.library.security.AccessTokenClaims;
+import com.ansy.library.service.JwtService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtService end-to-end: generateToken (login/refresh), parseToken (logout) dan
+ * parseAccessToken (setiap request terautentikasi).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private UUID userId;
+    private String sessionId;
+    private String token;
+
+    @Setup
+    public void setup() throws Exception {
+        jwtService = BenchmarkFixtures.jwtService();
+        userId = UUID.randomUUID();
+        sessionId = UUID.randomUUID().toString();
+        token = generateToken();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        Instant now = Instant.now();
+        return jwtService.generateToken(userId, "USER", sessionId, "id", now, now.plusSeconds(3600));
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return jwtService.parseToken(token);
+    }
+
+    @Benchmark
+    public AccessTokenClaims parseAccessToken() {
+        return jwtService.parseAccessToken(token);
+    }
+}
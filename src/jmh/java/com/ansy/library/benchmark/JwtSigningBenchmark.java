@@ -0,0 +1,106 @@
+package com.ansy.library.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Biaya sign & verify per algoritma JWT untuk signing input yang ukurannya sama dengan token kita
+ * (header + payload uid/role/sid/iat/exp). HS256 = baseline lama, ES256 = yang dipakai sekarang,
+ * EdDSA & RS256 sebagai pembanding.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtSigningBenchmark {
+
+    @Param({"HS256", "ES256", "EdDSA", "RS256"})
+    public String algorithm;
+
+    private byte[] signingInput;
+    private byte[] signature;
+
+    private Mac mac;
+    private Signature signer;
+    private Signature verifier;
+
+    @Setup
+    public void setup() throws Exception {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString(("{\"kid\":\"0190f3a2-7c1e-7b52-9d0e-3f1a2b4c5d6e\",\"alg\":\"" + algorithm + "\"}")
+                .getBytes(StandardCharsets.UTF_8));
+        String payload = encoder.encodeToString(("{\"uid\":\"7b0c1a52-2f4e-4c8e-9a3d-5e6f7a8b9c0d\",\"role\":\"USER\","
+                + "\"sid\":\"c3d4e5f6-a7b8-4c9d-8e0f-1a2b3c4d5e6f\",\"iat\":1760000000,\"exp\":1760003600}")
+                .getBytes(StandardCharsets.UTF_8));
+        signingInput = (header + "." + payload).getBytes(StandardCharsets.US_ASCII);
+
+        switch (algorithm) {
+            case "HS256" -> {
+                mac = Mac.getInstance("HmacSHA256");
+                mac.init(new SecretKeySpec("AvengersDoomsdayThreeHundreds2025".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+                signature = mac.doFinal(signingInput);
+                return;
+            }
+            case "ES256" -> {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+                initSignature("SHA256withECDSA", generator.generateKeyPair());
+            }
+            case "EdDSA" -> initSignature("Ed25519", KeyPairGenerator.getInstance("Ed25519").generateKeyPair());
+            case "RS256" -> {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048);
+                initSignature("SHA256withRSA", generator.generateKeyPair());
+            }
+            default -> throw new IllegalArgumentException(algorithm);
+        }
+        signature = sign();
+    }
+
+    private void initSignature(String jcaName, KeyPair pair) throws Exception {
+        signer = Signature.getInstance(jcaName);
+        signer.initSign(pair.getPrivate());
+        verifier = Signature.getInstance(jcaName);
+        verifier.initVerify(pair.getPublic());
+    }
+
+    @Benchmark
+    public byte[] sign() throws Exception {
+        if (mac != null) {
+            return mac.doFinal(signingInput);
+        }
+        signer.update(signingInput);
+        return signer.sign();
+    }
+
+    @Benchmark
+    public boolean verify() throws Exception {
+        if (mac != null) {
+            return MessageDigest.isEqual(mac.doFinal(signingInput), signature);
+        }
+        verifier.update(signingInput);
+        return verifier.verify(signature);
+    }
+}
@@ -0,0 +1,35 @@
+package com.ansy.library.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pembuatan key Redis rate limiter login (dipanggil 1-3x per login).
+ * Satu package dengan RedisRateLimiter karena getKey package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterKeyBenchmark {
+
+    // Field non-final supaya JIT tidak meng-constant-fold concat
+    public String email = "loginuser@example.com";
+    public String ip = "203.0.113.42";
+
+    @Benchmark
+    public String loginKey() {
+        return RedisRateLimiter.getKey(email, ip);
+    }
+}
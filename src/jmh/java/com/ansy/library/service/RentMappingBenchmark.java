@@ -0,0 +1,63 @@
+package com.ansy.library.service;
+
+import com.ansy.library.dto.AdminRentViewResponse;
+import com.ansy.library.entity.Book;
+import com.ansy.library.entity.Rent;
+import com.ansy.library.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Mapping Rent -> AdminRentViewResponse untuk endpoint admin (list rent aktif / overdue).
+ * Satu kelas dengan RentService karena toAdminResponse package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RentMappingBenchmark {
+
+    private Rent rent;
+    private List<Rent> page;
+
+    @Setup
+    public void setup() {
+        page = IntStream.range(0, 100)
+                .mapToObj(i -> Rent.builder()
+                        .id(UUID.randomUUID())
+                        .user(User.builder().id(UUID.randomUUID()).email("user" + i + "@example.com").build())
+                        .book(Book.builder().id(UUID.randomUUID()).title("Book " + i).author("Author " + i).build())
+                        .rentedAt(Instant.now())
+                        .dueAt(Instant.now().plus(7, ChronoUnit.DAYS))
+                        .build())
+                .toList();
+        rent = page.get(0);
+    }
+
+    @Benchmark
+    public AdminRentViewResponse single() {
+        return RentService.toAdminResponse(rent);
+    }
+
+    @Benchmark
+    public List<AdminRentViewResponse> page() {
+        return page.stream().map(RentService::toAdminResponse).toList();
+    }
+}
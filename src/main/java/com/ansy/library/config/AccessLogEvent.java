@@ -0,0 +1,26 @@
+package com.ansy.library.config;
+
+import java.util.Map;
+
+/**
+ * Satu baris access log. Dibuat di request thread (hanya copy referensi),
+ * di-format ke JSON di thread writer.
+ *
+ * @param headers hanya diisi untuk request yang di-sample (sudah di-redact)
+ * @param payload hanya diisi untuk request yang di-sample (terpotong di maxPayloadLength)
+ */
+public record AccessLogEvent(
+        long timestamp,
+        String method,
+        String uri,
+        String query,
+        int status,
+        long durationNanos,
+        String ip,
+        String userAgent,
+        String requestId,
+        String userId,
+        Map<String, String> headers,
+        String payload
+) {
+}
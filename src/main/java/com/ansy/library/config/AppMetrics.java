@@ -0,0 +1,264 @@
+package com.ansy.library.config;
+
+import com.ansy.library.exception.RateLimitException;
+import com.ansy.library.exception.UnauthorizedException;
+import com.ansy.library.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Semua metric domain di satu tempat.
+ * - Tag hanya dari enum (kardinalitas rendah & tetap), tidak pernah email/userId/IP
+ * - Meter dibuat sekali di constructor, di hot path hanya index array + record
+ * - Timer mempublikasikan percentile histogram (bucket dibatasi min/max expected value)
+ */
+@Component
+public class AppMetrics {
+
+    public enum LoginPhase {RATE_LIMIT, LOOKUP, BCRYPT, TOKEN_SIGN, SESSION_STORE, AUDIT}
+
+    public enum RedisCommand {
+        SESSION_STORE, SESSION_EXISTS, SESSION_INVALIDATE, SESSION_INVALIDATE_ALL,
+        RATE_LIMIT_GET, RATE_LIMIT_INCREMENT, RATE_LIMIT_CLEAR, RATE_LIMIT_TRUST, LOGIN_COMMIT, REFRESH_ROTATE, REFRESH_REVOKE_ALL,
+        EMAIL_FILTER_CHECK, EMAIL_FILTER_ADD, EMAIL_FILTER_REBUILD, CATALOG_VERSION_GET, CATALOG_VERSION_BUMP,
+        TOKEN_MAC_KEY_LOAD
+    }
+
+    /**
+     * LOGIN = gagal login per email:ip, STUFFING_IP / STUFFING_EMAIL = blok credential stuffing.
+     */
+    public enum RateLimiter {LOGIN, REQUEST, STUFFING_IP, STUFFING_EMAIL}
+
+    public enum MailType {VERIFICATION, FORGOT_PASSWORD}
+
+    /**
+     * ABSENT = DB tidak dicek, PRESENT = DB dicek & email memang ada,
+     * FALSE_POSITIVE = DB dicek tapi email tidak ada, UNAVAILABLE = filter belum siap / Redis gagal.
+     */
+    public enum EmailFilterResult {ABSENT, PRESENT, FALSE_POSITIVE, UNAVAILABLE}
+
+    public enum TokenType {VERIFICATION, PASSWORD_RESET, REFRESH}
+
+    /**
+     * PASSED, LEGACY & UNCHECKED (key HMAC belum termuat) diteruskan ke DB/Redis, sisanya ditolak di memori.
+     */
+    public enum TokenCheck {PASSED, LEGACY, UNCHECKED, MALFORMED, FORGED, EXPIRED, CONSUMED}
+
+    public enum WarmupPath {JWT_SIGN, JWT_VERIFY, AUTH_FILTER, RESPONSE_SERIALIZATION, BOOK_MAPPING}
+
+    /**
+     * SUCCESS = berhasil, REJECTED = ditolak karena aturan bisnis (4xx), ERROR = exception lain.
+     */
+    public enum Outcome {
+        SUCCESS, REJECTED, ERROR;
+
+        public static Outcome of(Throwable e) {
+            return e instanceof IllegalArgumentException || e instanceof IllegalStateException
+                    || e instanceof UnauthorizedException
+                    || e instanceof RateLimitException
+                    ? REJECTED : ERROR;
+        }
+    }
+
+    private final Timer[] loginPhases;
+    private final Timer[] logins;
+    private final Timer[] redisCommands;
+    private final Counter[] rateLimitBlocks;
+    private final Counter[] redisFallbacks;
+    private final AtomicInteger redisCircuitOpen = new AtomicInteger();
+    private final Timer[] rentCheckouts;
+    private final Timer[] rentReturns;
+    private final Timer[][] mails;
+    private final Counter[] emailFilterChecks;
+    private volatile BloomFilter emailFilter;
+    private final Counter[][] tokenChecks;
+    private final Timer[] warmups;
+
+    public AppMetrics(MeterRegistry registry) {
+        this.loginPhases = timers(LoginPhase.values(), phase -> Timer.builder("library.auth.login.phase")
+                .description("Durasi tiap fase login")
+                .tag("phase", tag(phase)), registry);
+        this.logins = timers(Outcome.values(), outcome -> Timer.builder("library.auth.login")
+                .description("Durasi login end-to-end")
+                .tag("outcome", tag(outcome)), registry);
+        this.redisCommands = timers(RedisCommand.values(), command -> Timer.builder("library.redis.command")
+                .description("Latency command Redis dari sisi aplikasi")
+                .tag("command", tag(command)), registry);
+        this.rentCheckouts = timers(Outcome.values(), outcome -> Timer.builder("library.rent.checkout")
+                .description("Durasi peminjaman buku")
+                .tag("outcome", tag(outcome)), registry);
+        this.rentReturns = timers(Outcome.values(), outcome -> Timer.builder("library.rent.return")
+                .description("Durasi pengembalian buku")
+                .tag("outcome", tag(outcome)), registry);
+
+        RedisCommand[] commands = RedisCommand.values();
+        this.redisFallbacks = new Counter[commands.length];
+        for (RedisCommand command : commands) {
+            redisFallbacks[command.ordinal()] = Counter.builder("library.redis.fallback")
+                    .description("Command Redis yang dijawab fallback (Redis gagal / circuit open)")
+                    .tag("command", tag(command))
+                    .register(registry);
+        }
+        Gauge.builder("library.redis.circuit.open", redisCircuitOpen, AtomicInteger::get)
+                .description("1 = circuit breaker Redis open (mode degradasi)")
+                .register(registry);
+
+        RateLimiter[] limiters = RateLimiter.values();
+        this.rateLimitBlocks = new Counter[limiters.length];
+        for (RateLimiter limiter : limiters) {
+            rateLimitBlocks[limiter.ordinal()] = Counter.builder("library.ratelimit.blocked")
+                    .description("Request yang ditolak rate limiter")
+                    .tag("limiter", tag(limiter))
+                    .register(registry);
+        }
+
+        MailType[] types = MailType.values();
+        this.mails = new Timer[types.length][];
+        for (MailType type : types) {
+            mails[type.ordinal()] = timers(Outcome.values(), outcome -> Timer.builder("library.mail.send")
+                    .description("Durasi kirim email (SMTP)")
+                    .tag("type", tag(type))
+                    .tag("outcome", tag(outcome)), registry);
+        }
+
+        EmailFilterResult[] results = EmailFilterResult.values();
+        this.emailFilterChecks = new Counter[results.length];
+        for (EmailFilterResult result : results) {
+            emailFilterChecks[result.ordinal()] = Counter.builder("library.email_filter.check")
+                    .description("Cek duplikat email saat register lewat bloom filter")
+                    .tag("result", tag(result))
+                    .register(registry);
+        }
+        TokenType[] tokenTypes = TokenType.values();
+        this.tokenChecks = new Counter[tokenTypes.length][];
+        for (TokenType type : tokenTypes) {
+            TokenCheck[] checks = TokenCheck.values();
+            tokenChecks[type.ordinal()] = new Counter[checks.length];
+            for (TokenCheck check : checks) {
+                tokenChecks[type.ordinal()][check.ordinal()] = Counter.builder("library.token.precheck")
+                        .description("Pra-validasi token (HMAC, expiry, cache token terpakai) sebelum lookup DB/Redis")
+                        .tag("type", tag(type))
+                        .tag("result", tag(check))
+                        .register(registry);
+            }
+        }
+
+        WarmupPath[] paths = WarmupPath.values();
+        this.warmups = new Timer[paths.length];
+        for (WarmupPath path : paths) {
+            // Sekali per startup, tanpa histogram
+            warmups[path.ordinal()] = Timer.builder("library.warmup")
+                    .description("Durasi warm-up JIT per path sebelum pod ready")
+                    .tag("path", tag(path))
+                    .register(registry);
+        }
+
+        Gauge.builder("library.email_filter.memory", this, m -> m.emailFilter == null ? 0 : m.emailFilter.sizeInBytes())
+                .description("Memori bloom filter email")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("library.email_filter.insertions", this, m -> m.emailFilter == null ? 0 : m.emailFilter.insertions())
+                .description("Jumlah email di bloom filter")
+                .register(registry);
+        Gauge.builder("library.email_filter.expected_fpp", this,
+                        m -> m.emailFilter == null ? 0 : m.emailFilter.expectedFalsePositiveRate())
+                .description("Perkiraan false positive rate bloom filter email saat ini")
+                .register(registry);
+    }
+
+    public void loginPhase(LoginPhase phase, long startNanos) {
+        record(loginPhases[phase.ordinal()], startNanos);
+    }
+
+    public void login(Outcome outcome, long startNanos) {
+        record(logins[outcome.ordinal()], startNanos);
+    }
+
+    public void rentCheckout(Outcome outcome, long startNanos) {
+        record(rentCheckouts[outcome.ordinal()], startNanos);
+    }
+
+    public void rentReturn(Outcome outcome, long startNanos) {
+        record(rentReturns[outcome.ordinal()], startNanos);
+    }
+
+    public void mail(MailType type, Outcome outcome, long startNanos) {
+        record(mails[type.ordinal()][outcome.ordinal()], startNanos);
+    }
+
+    public void rateLimitBlocked(RateLimiter limiter) {
+        rateLimitBlocks[limiter.ordinal()].increment();
+    }
+
+    public void redisFallback(RedisCommand command) {
+        redisFallbacks[command.ordinal()].increment();
+    }
+
+    public void emailFilter(EmailFilterResult result) {
+        emailFilterChecks[result.ordinal()].increment();
+    }
+
+    public void tokenCheck(TokenType type, TokenCheck result) {
+        tokenChecks[type.ordinal()][result.ordinal()].increment();
+    }
+
+    public void warmup(WarmupPath path, long startNanos) {
+        record(warmups[path.ordinal()], startNanos);
+    }
+
+    public void emailFilterBuilt(BloomFilter filter) {
+        this.emailFilter = filter;
+    }
+
+    public void redisCircuit(boolean open) {
+        redisCircuitOpen.set(open ? 1 : 0);
+    }
+
+    public <T> T redis(RedisCommand command, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            record(redisCommands[command.ordinal()], start);
+        }
+    }
+
+    public void redis(RedisCommand command, Runnable call) {
+        long start = System.nanoTime();
+        try {
+            call.run();
+        } finally {
+            record(redisCommands[command.ordinal()], start);
+        }
+    }
+
+    private static void record(Timer timer, long startNanos) {
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static <E extends Enum<E>> Timer[] timers(E[] values, Function<E, Timer.Builder> builder, MeterRegistry registry) {
+        Timer[] timers = new Timer[values.length];
+        for (E value : values) {
+            timers[value.ordinal()] = builder.apply(value)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(100_000))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(registry);
+        }
+        return timers;
+    }
+
+    private static String tag(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -6,6 +6,9 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.List;
+
 @Component
 @ConfigurationProperties(prefix = "app")
 @Getter
@@ -16,8 +19,19 @@ public class AppProperties {
     private String forgotPasswordUrl;
     private String frontendBaseUrl;
     private String mailFrom;
-    private String jwtSecret;
+    private String jwtSecret; // opsional, hanya untuk verifikasi token HS256 lama
     private Long jwtExpiration;
+    private Duration jwtKeyRotation = Duration.ofDays(7);
+    private String jwtKeyEncryptionKey; // base64 32 byte (AES-256), private key JWT di Redis dienkripsi; jangan simpan di Redis
+    private Cleanup cleanup = new Cleanup();
+    private AccessLog accessLog = new AccessLog();
+    private RedisResilience redisResilience = new RedisResilience();
+    private ReadReplica readReplica = new ReadReplica();
+    private EmailFilter emailFilter = new EmailFilter();
+    private TokenGuard tokenGuard = new TokenGuard();
+    private CredentialStuffing credentialStuffing = new CredentialStuffing();
+    private Warmup warmup = new Warmup();
+    private LoadTest loadTest = new LoadTest();
 
     @PostConstruct
     public void validate() {
@@ -30,11 +44,105 @@ public class AppProperties {
         if (mailFrom == null || mailFrom.isBlank()) {
             throw new IllegalStateException("Missing required property: app.mail-from");
         }
-        if (jwtSecret == null || jwtSecret.isBlank()) {
-            throw new IllegalStateException("Missing required property: app.jwt-secret");
-        }
         if (jwtExpiration == null) {
             throw new IllegalStateException("Missing required property: app.jwt-expiration");
         }
     }
+
+    @Getter
+    @Setter
+    public static class Cleanup {
+        private int chunkSize = 1000; // max row per DELETE
+        private Duration pause = Duration.ofMillis(200); // jeda antar chunk
+        private Duration maxDuration = Duration.ofMinutes(10); // batas waktu 1 run, sekaligus TTL lock (diperpanjang tiap chunk)
+    }
+
+    @Getter
+    @Setter
+    public static class AccessLog {
+        private boolean enabled = true;
+        private int bufferSize = 8192; // event di antrian writer, lebih dari ini di-drop
+        private double payloadSampleRate = 0.01; // porsi request yang header & body-nya ikut dicatat
+        private int maxPayloadLength = 2048;
+        private List<String> redactedHeaders = List.of("Authorization", "Cookie", "Set-Cookie", "X-Api-Key");
+        // Nilai query param yang di-mask di SEMUA request (bukan hanya sample), mis. /auth/verify?token=
+        private List<String> redactedQueryParams = List.of("token", "refreshToken", "password", "newPassword");
+    }
+
+    @Getter
+    @Setter
+    public static class RedisResilience {
+        private SessionFallback sessionFallback = SessionFallback.TRUST_JWT;
+        private Duration readTimeout = Duration.ofMillis(100); // deadline EXISTS/GET di request path
+        private int failureThreshold = 5; // gagal berturut-turut sebelum circuit open
+    }
+
+    /**
+     * Cek session saat Redis tidak tersedia.
+     * TRUST_JWT = token yang signature-nya valid diterima sampai exp, kecuali ada di deny-list lokal.
+     * REJECT = semua request ber-token ditolak (401).
+     */
+    public enum SessionFallback {TRUST_JWT, REJECT}
+
+    @Getter
+    @Setter
+    public static class ReadReplica {
+        private boolean enabled = false;
+        private List<String> urls = List.of(); // JDBC URL replica, username/password sama dengan primary
+        private int poolSize = 10; // per replica
+        private Duration maxLag = Duration.ofSeconds(5); // replica yang tertinggal lebih dari ini tidak dipakai
+        private Duration readYourWritesWindow = Duration.ofSeconds(10); // user yang baru write dibaca dari primary
+    }
+
+    @Getter
+    @Setter
+    public static class EmailFilter {
+        private boolean enabled = true;
+        private long expectedInsertions = 2_000_000; // minimum; mode lokal menyesuaikan 2x jumlah user saat rebuild
+        private double falsePositiveRate = 0.01; // porsi email baru yang tetap dicek ke DB
+        private boolean shared = false; // true = 1 bitmap Redis untuk semua pod
+    }
+
+    @Getter
+    @Setter
+    public static class TokenGuard {
+        private String macSecret; // base64 min. 32 byte, sama di semua pod; kosong = key bersama di Redis (plaintext)
+        private boolean acceptLegacy = true; // token tanpa HMAC (sebelum upgrade), matikan 7 hari setelah deploy
+        private int consumedCacheSize = 100_000; // token terpakai yang diingat lokal per pod
+    }
+
+    @Getter
+    @Setter
+    public static class CredentialStuffing {
+        private boolean enabled = true;
+        private Duration window = Duration.ofMinutes(15); // sliding window, dibagi ke beberapa bucket HLL
+        private int buckets = 5;
+        private int emailsPerIp = 20; // email berbeda yang gagal login dari 1 IP
+        private int ipsPerEmail = 10; // IP berbeda yang gagal login ke 1 email
+        // Blok email = siapa pun bisa mengunci akun orang lain dari banyak IP (lockout DoS), default off
+        private boolean emailBlock = false;
+        private Duration trustedIpTtl = Duration.ofDays(30); // IP dengan login sukses ke email tsb. tidak kena blok email
+        private Duration blockDuration = Duration.ofMinutes(15); // blok pertama, naik 2x tiap pelanggaran berikutnya
+        private Duration maxBlockDuration = Duration.ofHours(24);
+    }
+
+    @Getter
+    @Setter
+    public static class Warmup {
+        private boolean enabled = true;
+        private int iterations = 10_000; // per path, cukup untuk melewati threshold C2
+        private int dbIterations = 200; // path yang query DB sungguhan (BOOK_MAPPING)
+        private Duration maxDuration = Duration.ofSeconds(30); // batas total, sisa path dilewati setelahnya
+    }
+
+    // Hanya dipakai BulkDataSeeder (profile loadtest)
+    @Getter
+    @Setter
+    public static class LoadTest {
+        private long users = 1_000_000;
+        private long books = 50_000;
+        private long rents = 2_000_000;
+        private long activeRents = 10_000; // rent belum kembali, user & buku index < activeRents
+        private long audits = 5_000_000;
+    }
 }
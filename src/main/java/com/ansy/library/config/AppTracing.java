@@ -0,0 +1,50 @@
+package com.ansy.library.config;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Span manual untuk bagian yang tidak tercakup instrumentasi otomatis
+ * (HTTP server, JDBC dan Lettuce sudah punya span sendiri), mis. BCrypt, sign JWT, SMTP.
+ */
+@Component
+@RequiredArgsConstructor
+public class AppTracing {
+
+    public static final String RESPONSE_ID = "response.id";
+
+    private final Tracer tracer;
+
+    public <T> T inSpan(String name, Supplier<T> work) {
+        Span span = tracer.nextSpan().name(name).start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return work.get();
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    public void inSpan(String name, Runnable work) {
+        inSpan(name, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Tag pada span yang sedang aktif (jika ada).
+     */
+    public void tag(String key, String value) {
+        Span span = tracer.currentSpan();
+        if (span != null && value != null) {
+            span.tag(key, value);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.ansy.library.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Writer access log asinkron.
+ * - Request thread hanya {@link #offer} ke ring buffer berukuran tetap, tidak pernah menunggu
+ * - Buffer penuh = event dibuang (drop policy), jumlahnya dicatat & dilaporkan berkala
+ * - Format JSON, redaksi payload dan I/O dilakukan di 1 thread writer
+ */
+@Slf4j
+public class AsyncAccessLogWriter implements AutoCloseable {
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("ACCESS_LOG");
+    private static final int BATCH_SIZE = 256;
+
+    private static final Pattern SENSITIVE_FIELDS = Pattern.compile(
+            "\"(password|newPassword|token|refreshToken)\"\\s*:\\s*\"(?:[^\"\\\\]|\\\\.)*\"");
+
+    private final BlockingQueue<AccessLogEvent> buffer;
+    private final Consumer<String> sink;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long reportedDropped;
+
+    public AsyncAccessLogWriter(int capacity) {
+        this(capacity, ACCESS_LOG::info);
+    }
+
+    AsyncAccessLogWriter(int capacity, Consumer<String> sink) {
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.sink = sink;
+        this.worker = Thread.ofPlatform().name("access-log-writer").daemon().unstarted(this::run);
+    }
+
+    public void start() {
+        worker.start();
+    }
+
+    /**
+     * @return false jika buffer penuh dan event dibuang
+     */
+    public boolean offer(AccessLogEvent event) {
+        if (buffer.offer(event)) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void run() {
+        List<AccessLogEvent> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder json = new StringBuilder(512);
+
+        while (running || !buffer.isEmpty()) {
+            try {
+                AccessLogEvent first = buffer.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    buffer.drainTo(batch, BATCH_SIZE - 1);
+                    for (AccessLogEvent event : batch) {
+                        json.setLength(0);
+                        format(event, json);
+                        sink.accept(json.toString());
+                    }
+                    batch.clear();
+                }
+                reportDropped();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                batch.clear();
+                log.warn("⚠️ Gagal menulis access log: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void reportDropped() {
+        long total = dropped.get();
+        if (total > reportedDropped) {
+            log.warn("⚠️ {} access log dibuang karena buffer penuh", total - reportedDropped);
+            reportedDropped = total;
+        }
+    }
+
+    static void format(AccessLogEvent event, StringBuilder out) {
+        out.append("{\"timestamp\":\"").append(Instant.ofEpochMilli(event.timestamp())).append('"');
+        field(out, "method", event.method());
+        field(out, "uri", event.uri());
+        field(out, "query", event.query());
+        out.append(",\"status\":").append(event.status());
+        out.append(",\"durationNanos\":").append(event.durationNanos());
+        field(out, "ip", event.ip());
+        field(out, "userAgent", event.userAgent());
+        field(out, "requestId", event.requestId());
+        field(out, "userId", event.userId());
+
+        if (event.headers() != null) {
+            out.append(",\"headers\":{");
+            boolean first = true;
+            for (Map.Entry<String, String> header : event.headers().entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                string(out, header.getKey());
+                out.append(':');
+                string(out, header.getValue());
+            }
+            out.append('}');
+        }
+        if (event.payload() != null) {
+            field(out, "payload", redactPayload(event.payload()));
+        }
+        out.append('}');
+    }
+
+    static String redactPayload(String payload) {
+        return SENSITIVE_FIELDS.matcher(payload).replaceAll("\"$1\":\"[REDACTED]\"");
+    }
+
+    private static void field(StringBuilder out, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        out.append(",\"").append(name).append("\":");
+        string(out, value);
+    }
+
+    private static void string(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+}
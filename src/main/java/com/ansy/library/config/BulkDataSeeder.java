@@ -0,0 +1,169 @@
+package com.ansy.library.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Seeder data skala produksi untuk load test (profile loadtest), lewat COPY ... FROM STDIN.
+ * <p>
+ * Data deterministik supaya skenario k6 (loadtest/k6) bisa menebak id & email tanpa query:
+ * - user n : loaduser{n}@loadtest.local / Password1, id = {@link #seededId}(TABLE_USER, n)
+ * - buku n : id = seededId(TABLE_BOOK, n), buku & user dengan index < activeRents sedang dipinjam
+ * Dijalankan {@link DataSeeder} di background setelah seed awal, di-skip jika loaduser0 sudah ada.
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+public class BulkDataSeeder {
+
+    static final long BASE_MILLIS = 1_700_000_000_000L;
+    static final int TABLE_USER = 1;
+    static final int TABLE_BOOK = 2;
+    static final int TABLE_RENT = 3;
+    static final int TABLE_AUDIT = 4;
+
+    private static final String PASSWORD_HASH = "$2a$10$eUIidNd7dWn6CN5XLqg8E.VBCiAfq6a6xfQBKFAqox7KW2NvqSQiS"; // Password1
+    private static final String[] ACTIVITY_TYPES = {"LOGIN", "LOGIN", "LOGIN", "LOGOUT", "REGISTER", "VERIFY_EMAIL"};
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AppProperties properties;
+
+    @FunctionalInterface
+    interface RowWriter {
+        void write(long n, StringBuilder out);
+    }
+
+    /**
+     * @return true jika data baru di-insert
+     */
+    public boolean seed() {
+        AppProperties.LoadTest config = properties.getLoadTest();
+        if (config.getActiveRents() >= config.getUsers() || config.getActiveRents() >= config.getBooks()) {
+            throw new IllegalStateException("app.load-test.active-rents harus lebih kecil dari jumlah users dan books");
+        }
+
+        Boolean seeded = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM users WHERE email = 'loaduser0@loadtest.local')", Boolean.class);
+        if (Boolean.TRUE.equals(seeded)) {
+            log.info("🌱 Data load test sudah ada, seeder di-skip");
+            return false;
+        }
+
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        long started = System.nanoTime();
+
+        copy("users", "COPY users (id, email, password, role, email_verified, created_at, updated_at) FROM STDIN WITH (FORMAT csv)",
+                config.getUsers(), (n, out) -> {
+                    String created = timestamp(now.minus(n % 365, ChronoUnit.DAYS));
+                    out.append(seededId(TABLE_USER, n)).append(",loaduser").append(n).append("@loadtest.local,")
+                            .append(PASSWORD_HASH).append(",USER,t,").append(created).append(',').append(created).append('\n');
+                });
+
+        copy("books", "COPY books (id, title, author, available) FROM STDIN WITH (FORMAT csv)",
+                config.getBooks(), (n, out) -> out.append(seededId(TABLE_BOOK, n))
+                        .append(",Load Test Book ").append(n)
+                        .append(",Author ").append(n % 5_000)
+                        .append(',').append(n < config.getActiveRents() ? 'f' : 't').append('\n'));
+
+        long returnedRents = config.getRents() - config.getActiveRents();
+        copy("rent", "COPY rent (id, user_id, book_id, rented_at, due_at, returned_at) FROM STDIN WITH (FORMAT csv)",
+                config.getRents(), (n, out) -> {
+                    out.append(seededId(TABLE_RENT, n)).append(',');
+                    if (n >= returnedRents) {
+                        // Sedang dipinjam, sebagian sudah lewat due date (untuk view overdue)
+                        long k = n - returnedRents;
+                        Instant rentedAt = now.minus(k % 20, ChronoUnit.DAYS);
+                        out.append(seededId(TABLE_USER, k)).append(',').append(seededId(TABLE_BOOK, k)).append(',')
+                                .append(timestamp(rentedAt)).append(',')
+                                .append(timestamp(rentedAt.plus(7, ChronoUnit.DAYS))).append(",\n");
+                    } else {
+                        long user = config.getActiveRents() + n % (config.getUsers() - config.getActiveRents());
+                        long book = config.getActiveRents() + n % (config.getBooks() - config.getActiveRents());
+                        Instant rentedAt = now.minus(30 + n % 700, ChronoUnit.DAYS);
+                        out.append(seededId(TABLE_USER, user)).append(',').append(seededId(TABLE_BOOK, book)).append(',')
+                                .append(timestamp(rentedAt)).append(',')
+                                .append(timestamp(rentedAt.plus(7, ChronoUnit.DAYS))).append(',')
+                                .append(timestamp(rentedAt.plus(n % 10, ChronoUnit.DAYS))).append('\n');
+                    }
+                });
+
+        copy("user_activity_audit", "COPY user_activity_audit (id, user_id, email, activity_type, success, ip_address, user_agent, activity_time) "
+                        + "FROM STDIN WITH (FORMAT csv)",
+                config.getAudits(), (n, out) -> {
+                    long user = n % config.getUsers();
+                    out.append(seededId(TABLE_AUDIT, n)).append(',').append(seededId(TABLE_USER, user))
+                            .append(",loaduser").append(user).append("@loadtest.local,")
+                            .append(ACTIVITY_TYPES[(int) (n % ACTIVITY_TYPES.length)]).append(',')
+                            .append(n % 10 == 0 ? 'f' : 't')
+                            .append(",10.").append((n >> 16) & 0xFF).append('.').append((n >> 8) & 0xFF).append('.').append(n & 0xFF)
+                            .append(",k6-seed,").append(timestamp(now.minusSeconds(n % 7_776_000))).append('\n');
+                });
+
+        // Statistik planner langsung up to date, bukan menunggu autovacuum
+        jdbcTemplate.execute("ANALYZE users, books, rent, user_activity_audit");
+        log.info("🌱 Seed load test selesai dalam {}s", Duration.ofNanos(System.nanoTime() - started).toSeconds());
+        return true;
+    }
+
+    /**
+     * Id UUIDv7 deterministik: timestamp = BASE_MILLIS + n, rand_a = kode tabel, rand_b = n.
+     * Rumus yang sama dipakai di loadtest/k6/lib/common.js.
+     */
+    static UUID seededId(int table, long n) {
+        long msb = ((BASE_MILLIS + n) << 16) | 0x7000L | table;
+        long lsb = 0x8000_0000_0000_0000L | n;
+        return new UUID(msb, lsb);
+    }
+
+    private void copy(String table, String sql, long rows, RowWriter writer) {
+        long started = System.nanoTime();
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> copy(connection, sql, rows, writer));
+        log.info("🌱 {}: {} row dalam {} ms", table, copied, Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    private static long copy(Connection connection, String sql, long rows, RowWriter writer) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+        StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 1024);
+        try {
+            for (long n = 0; n < rows; n++) {
+                writer.write(n, buffer);
+                if (buffer.length() >= FLUSH_THRESHOLD) {
+                    flush(copyIn, buffer);
+                }
+            }
+            flush(copyIn, buffer);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static void flush(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static String timestamp(Instant instant) {
+        // Kolom TIMESTAMP (tanpa zona), nilai disimpan dalam UTC
+        return instant.toString().replace('T', ' ').replace("Z", "");
+    }
+}
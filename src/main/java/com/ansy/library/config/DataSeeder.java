@@ -5,43 +5,81 @@ import com.ansy.library.entity.Role;
 import com.ansy.library.entity.User;
 import com.ansy.library.repository.BookRepository;
 import com.ansy.library.repository.UserRepository;
-import jakarta.annotation.PostConstruct;
+import com.ansy.library.service.CatalogVersionService;
+import com.ansy.library.service.EmailFilterService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 
+/**
+ * Seed data awal (hanya jika tabel kosong), lalu data load test (profile loadtest).
+ * Jalan di background setelah aplikasi ready: pod baru tidak menunggu query count()/COPY sebelum menerima traffic.
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class DataSeeder {
 
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
+    private final ObjectProvider<BulkDataSeeder> bulkDataSeeder;
+    private final EmailFilterService emailFilterService;
+    private final CatalogVersionService catalogVersion;
 
-    @PostConstruct
-    public void seedBooks() {
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        // Platform thread: COPY driver PostgreSQL memakai synchronized, di virtual thread carrier-nya ikut ter-pin
+        Thread.ofPlatform().name("data-seeder").daemon().start(this::seed);
+    }
+
+    void seed() {
+        long started = System.nanoTime();
+        try {
+            seedBooks();
+            seedUsers();
+            BulkDataSeeder bulk = bulkDataSeeder.getIfAvailable();
+            if (bulk != null && bulk.seed()) {
+                // Jutaan user baru lewat COPY, tidak lewat register
+                emailFilterService.rebuild();
+                catalogVersion.bump();
+            }
+            log.info("🌱 Seeding selesai ({} ms)", Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } catch (RuntimeException e) {
+            log.error("❌ Seeding gagal", e);
+        }
+    }
+
+    void seedBooks() {
         if (bookRepository.count() == 0) {
-            bookRepository.save(Book.builder().title("One Piece").author("Eiichiro Oda").available(true).build());
-            bookRepository.save(Book.builder().title("Detective Conan").author("Aoyama Gosho").available(true).build());
-            bookRepository.save(Book.builder().title("Dragon Ball").author("Akira Toriyama").available(true).build());
-            bookRepository.save(Book.builder().title("Naruto").author("Masashi Kishimoto").available(true).build());
-            bookRepository.save(Book.builder().title("Attack on Titan").author("Hajime Isayama").available(true).build());
+            // saveAll -> 1 transaksi, insert dikirim sebagai JDBC batch
+            bookRepository.saveAll(List.of(
+                    Book.builder().title("One Piece").author("Eiichiro Oda").available(true).build(),
+                    Book.builder().title("Detective Conan").author("Aoyama Gosho").available(true).build(),
+                    Book.builder().title("Dragon Ball").author("Akira Toriyama").available(true).build(),
+                    Book.builder().title("Naruto").author("Masashi Kishimoto").available(true).build(),
+                    Book.builder().title("Attack on Titan").author("Hajime Isayama").available(true).build()
+            ));
+            catalogVersion.bump();
         }
     }
 
-    @PostConstruct
-    public void seedUsers() {
+    void seedUsers() {
         if (userRepository.count() == 0) {
-            userRepository.save(
+            userRepository.saveAll(List.of(
                     User.builder()
                             .email("dummyadmin@gmail.com")
                             .password("$2a$10$eUIidNd7dWn6CN5XLqg8E.VBCiAfq6a6xfQBKFAqox7KW2NvqSQiS") // Password1
                             .role(Role.ADMIN)
                             .emailVerified(true)
                             .createdAt(Instant.now())
-                            .build()
-            );
-            userRepository.save(
+                            .build(),
                     User.builder()
                             .email("dummyuser@gmail.com")
                             .password("$2a$10$eUIidNd7dWn6CN5XLqg8E.VBCiAfq6a6xfQBKFAqox7KW2NvqSQiS") // Password1
@@ -49,7 +87,7 @@ public class DataSeeder {
                             .emailVerified(true)
                             .createdAt(Instant.now())
                             .build()
-            );
+            ));
         }
     }
 }
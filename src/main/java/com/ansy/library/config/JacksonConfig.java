@@ -0,0 +1,16 @@
+package com.ansy.library.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    // Blackbird: getter/setter dipanggil lewat LambdaMetafactory, bukan reflection (untuk DTO selain envelope)
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,193 @@
+package com.ansy.library.config;
+
+import com.ansy.library.config.AppMetrics.WarmupPath;
+import com.ansy.library.dto.ApiResponse;
+import com.ansy.library.dto.BookDto;
+import com.ansy.library.dto.LoginResponse;
+import com.ansy.library.security.JwtAuthenticationFilter;
+import com.ansy.library.service.BookService;
+import com.ansy.library.service.JwtService;
+import com.ansy.library.service.RedisSessionService;
+import com.ansy.library.utils.UuidV7;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.tracing.CurrentTraceContext;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Warm-up JIT sebelum pod menerima traffic: hot path login & /books dijalankan berulang dengan data sintetis
+ * sampai ter-compile C2, supaya request pertama setelah deploy tidak jalan di interpreter/C1.
+ * - ApplicationRunner jalan sebelum ApplicationReadyEvent, readiness probe tetap OUT_OF_SERVICE selama warm-up
+ *   (liveness sudah CORRECT, pod tidak di-restart)
+ * - Bean asli (filter auth, RedisSessionService + circuit breaker, BookService + repository), hanya request/response
+ *   servlet yang di-stub. Session warm-up disimpan di Redis dengan TTL pendek dan dihapus setelah selesai
+ * - Semua span di bawah trace context unsampled: JDBC, Lettuce & span manual tidak diekspor
+ * - app.warmup.iterations per path (path DB: app.warmup.db-iterations), dibatasi app.warmup.max-duration total;
+ *   gagal (mis. Redis/DB belum siap) = pod tetap ready
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JitWarmup implements ApplicationRunner {
+
+    private static final int BOOKS = 20;
+
+    private final AppProperties properties;
+    private final AppMetrics metrics;
+    private final JwtService jwtService;
+    private final JwtAuthenticationFilter authenticationFilter;
+    private final RedisSessionService sessionService;
+    private final BookService bookService;
+    private final MessageCatalog messageCatalog;
+    private final ObjectMapper objectMapper;
+    private final Tracer tracer;
+
+    // Hasil tiap iterasi ditulis ke sini supaya tidak dibuang JIT sebagai dead code
+    private Object sink;
+
+    @FunctionalInterface
+    interface Iteration {
+        Object run(int i) throws Exception;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AppProperties.Warmup config = properties.getWarmup();
+        if (!config.isEnabled() || config.getIterations() <= 0) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        try (CurrentTraceContext.Scope ignored = tracer.currentTraceContext().newScope(unsampled())) {
+            warmUp(config, started + config.getMaxDuration().toNanos());
+            log.info("🔥 Warm-up JIT selesai ({} ms)", Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } catch (Exception e) {
+            log.warn("⚠️ Warm-up JIT gagal, pod tetap ready tanpa warm-up", e);
+        } finally {
+            SecurityContextHolder.clearContext();
+            MDC.remove("responseId");
+            sink = null;
+        }
+    }
+
+    void warmUp(AppProperties.Warmup config, long deadline) throws Exception {
+        int iterations = config.getIterations();
+        UUID userId = UuidV7.generate();
+        String sessionId = UUID.randomUUID().toString();
+        Instant issuedAt = Instant.now();
+        Instant expiredAt = issuedAt.plusSeconds(jwtService.getExpiration());
+        String token = jwtService.generateToken(userId, "USER", sessionId, "en", issuedAt, expiredAt);
+
+        measure(WarmupPath.JWT_SIGN, iterations, deadline,
+                i -> jwtService.generateToken(userId, "USER", sessionId, "en", issuedAt, expiredAt));
+        measure(WarmupPath.JWT_VERIFY, iterations, deadline, i -> jwtService.parseAccessToken(token));
+
+        HttpServletRequest request = request("Bearer " + token);
+        HttpServletResponse response = stub(HttpServletResponse.class);
+        FilterChain chain = (req, res) -> {
+        };
+        // TTL = sisa budget warm-up, kalau pod mati sebelum finally session tetap hilang sendiri
+        sessionService.storeSession(userId, sessionId, issuedAt.plus(config.getMaxDuration()).plusSeconds(60));
+        try {
+            measure(WarmupPath.AUTH_FILTER, iterations, deadline, i -> {
+                authenticationFilter.doFilter(request, response, chain);
+                if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                    throw new IllegalStateException("Session warm-up tidak dikenali filter");
+                }
+                SecurityContextHolder.clearContext();
+                return request;
+            });
+        } finally {
+            sessionService.invalidateSession(userId, sessionId);
+        }
+
+        List<BookDto> catalog = bookService.getAvailableBooks();
+        List<BookDto> sample = catalog.subList(0, Math.min(BOOKS, catalog.size()));
+        measure(WarmupPath.BOOK_MAPPING, config.getDbIterations(), deadline, i -> i % 2 == 0 || sample.isEmpty()
+                ? bookService.getAvailableBooks()
+                : bookService.getBookById(sample.get(i % sample.size()).getId()));
+
+        // Sampel kecil: payload katalog penuh bisa MB-an dan menghabiskan budget di path ini saja
+        LoginResponse login = LoginResponse.builder().token(token).expiredAt(expiredAt).refreshToken(sessionId).build();
+        measure(WarmupPath.RESPONSE_SERIALIZATION, iterations, deadline, i -> objectMapper.writeValueAsBytes(i % 2 == 0
+                ? ApiResponse.success(messageCatalog.get(MessageKey.LOGIN_SUCCESS), login)
+                : ApiResponse.success(messageCatalog.get(MessageKey.BOOK_LIST_SUCCESS), sample)));
+    }
+
+    private TraceContext unsampled() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HexFormat hex = HexFormat.of();
+        return tracer.traceContextBuilder()
+                .traceId(hex.toHexDigits(random.nextLong()) + hex.toHexDigits(random.nextLong()))
+                .spanId(hex.toHexDigits(random.nextLong()))
+                .sampled(false)
+                .build();
+    }
+
+    private void measure(WarmupPath path, int iterations, long deadline, Iteration iteration) throws Exception {
+        if (System.nanoTime() - deadline >= 0) {
+            log.warn("⏱️ Warm-up {} dilewati, batas app.warmup.max-duration habis", path);
+            return;
+        }
+
+        long start = System.nanoTime();
+        int done = 0;
+        while (done < iterations && ((done & 255) != 0 || System.nanoTime() - deadline < 0)) {
+            sink = iteration.run(done++);
+        }
+        metrics.warmup(path, start);
+        log.info("🔥 Warm-up {}: {} iterasi, {} ms", path, done, Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private static HttpServletRequest request(String authorization) {
+        Map<String, Object> attributes = new HashMap<>();
+        return (HttpServletRequest) Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getHeader" -> "Authorization".equalsIgnoreCase((String) args[0]) ? authorization : null;
+                    case "getAttribute" -> attributes.get((String) args[0]);
+                    case "setAttribute" -> attributes.put((String) args[0], args[1]);
+                    case "removeAttribute" -> attributes.remove((String) args[0]);
+                    case "getDispatcherType" -> DispatcherType.REQUEST;
+                    default -> defaultValue(method.getReturnType());
+                });
+    }
+
+    private static <T> T stub(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> defaultValue(method.getReturnType())));
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ansy.library.config;
+
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Tabel pesan lokalisasi yang di-compile sekali saat startup dari messages_*.properties.
+ * Lookup = index bahasa + ordinal {@link MessageKey}, tanpa hashing, tanpa lock, tanpa cek reload.
+ * Startup gagal jika ada key yang tidak ada di salah satu bahasa.
+ * <p>
+ * MessageSource tetap dipakai untuk interpolasi pesan Bean Validation ({login.invalidEmail}, dll).
+ */
+@Component
+public class MessageCatalog {
+
+    public static final Locale DEFAULT_LOCALE = new Locale("id");
+
+    // Index 0 = default
+    static final String[] LANGUAGES = {"id", "en"};
+
+    private final String[][] table;
+
+    public MessageCatalog() {
+        this.table = compile();
+    }
+
+    public String get(MessageKey key) {
+        return get(key, LocaleContextHolder.getLocale());
+    }
+
+    public String get(MessageKey key, Locale locale) {
+        return table[languageIndex(locale)][key.ordinal()];
+    }
+
+    static int languageIndex(Locale locale) {
+        if (locale == null) {
+            return 0;
+        }
+        String language = locale.getLanguage();
+        for (int i = 1; i < LANGUAGES.length; i++) {
+            if (LANGUAGES[i].equals(language)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    static String[][] compile() {
+        MessageKey[] keys = MessageKey.values();
+        String[][] compiled = new String[LANGUAGES.length][keys.length];
+        List<String> missing = new ArrayList<>();
+
+        for (int i = 0; i < LANGUAGES.length; i++) {
+            Properties properties = load("messages_" + LANGUAGES[i] + ".properties");
+            for (MessageKey key : keys) {
+                String value = properties.getProperty(key.getKey());
+                if (value == null) {
+                    missing.add(LANGUAGES[i] + ":" + key.getKey());
+                }
+                compiled[i][key.ordinal()] = value;
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing localized messages: " + missing);
+        }
+        return compiled;
+    }
+
+    static Properties load(String resource) {
+        InputStream stream = MessageCatalog.class.getClassLoader().getResourceAsStream(resource);
+        if (stream == null) {
+            throw new IllegalStateException("Missing message bundle: " + resource);
+        }
+
+        Properties properties = new Properties();
+        try (InputStreamReader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read message bundle: " + resource, e);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,71 @@
+package com.ansy.library.config;
+
+/**
+ * Semua key pesan di messages_*.properties. Ordinal dipakai sebagai index tabel di {@link MessageCatalog}.
+ */
+public enum MessageKey {
+    GENERAL_INTERNAL_SERVER_ERROR("general.internalServerError"),
+    GENERAL_INVALID_SESSION("general.invalidSession"),
+    GENERAL_INVALID_TOKEN("general.invalidToken"),
+    GENERAL_SERVICE_UNAVAILABLE("general.serviceUnavailable"),
+
+    REGISTRATION_SUCCESS("registration.success"),
+    REGISTRATION_RATE_LIMIT("registration.rateLimit"),
+    REGISTRATION_INVALID_DOMAIN("registration.invalidDomain"),
+    REGISTRATION_INVALID_EMAIL("registration.invalidEmail"),
+    REGISTRATION_DUPLICATE_EMAIL("registration.duplicateEmail"),
+    REGISTRATION_INVALID_SIMPLE_PASSWORD("registration.invalidSimplePassword"),
+    REGISTRATION_INVALID_SHORT_PASSWORD("registration.invalidShortPassword"),
+
+    VERIFICATION_SUCCESS("verification.success"),
+    VERIFICATION_INVALID("verification.invalid"),
+
+    LOGIN_INVALID_EMAIL("login.invalidEmail"),
+    LOGIN_REQUIRED_EMAIL("login.required.email"),
+    LOGIN_REQUIRED_PASSWORD("login.required.password"),
+    LOGIN_INVALID_CREDENTIALS("login.invalidCredentials"),
+    LOGIN_UNVERIFIED_EMAIL("login.unverifiedEmail"),
+    LOGIN_SUCCESS("login.success"),
+    LOGIN_RATE_LIMIT("login.rateLimit"),
+
+    LOGOUT_SUCCESS("logout.success"),
+
+    FORGOT_PASSWORD_INVALID_EMAIL("forgotPassword.invalidEmail"),
+    FORGOT_PASSWORD_REQUIRED_EMAIL("forgotPassword.required.email"),
+    FORGOT_PASSWORD_SUCCESS("forgotPassword.success"),
+
+    RESET_PASSWORD_INVALID_SIMPLE_PASSWORD("resetPassword.invalidSimplePassword"),
+    RESET_PASSWORD_INVALID_SHORT_PASSWORD("resetPassword.invalidShortPassword"),
+    RESET_PASSWORD_REQUIRED_TOKEN("resetPassword.required.token"),
+    RESET_PASSWORD_SUCCESS("resetPassword.success"),
+    RESET_PASSWORD_TOKEN_NOT_FOUND("resetPassword.token.notFound"),
+    RESET_PASSWORD_TOKEN_INVALID("resetPassword.token.invalid"),
+
+    REFRESH_INVALID("refresh.invalid"),
+    REFRESH_EXPIRED("refresh.expired"),
+    REFRESH_SUCCESS("refresh.success"),
+
+    BOOK_LIST_SUCCESS("book.list.success"),
+    BOOK_ONE_SUCCESS("book.one.success"),
+    BOOK_NOT_FOUND("book.notFound"),
+    BOOK_NOT_AVAILABLE("book.notAvailable"),
+
+    RENT_ALREADY_EXISTS("rent.alreadyExists"),
+    RENT_SUCCESS("rent.success"),
+    RENT_NO_DATA("rent.noData"),
+    RENT_RETURN_SUCCESS("rent.return.success"),
+    RENT_LIST_ACTIVE("rent.list.active"),
+    RENT_LIST_OVERDUE("rent.list.overdue"),
+
+    USER_NOT_FOUND("user.notFound");
+
+    private final String key;
+
+    MessageKey(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
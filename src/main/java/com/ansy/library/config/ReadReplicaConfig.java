@@ -0,0 +1,68 @@
+package com.ansy.library.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aktif hanya jika app.read-replica.enabled=true, selain itu DataSource tetap dari auto-config Spring Boot.
+ * Primary tetap memakai spring.datasource.* (termasuk hikari), tiap replica punya pool sendiri.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.read-replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             AppProperties properties,
+                                                             ReadReplicaRouting routing,
+                                                             MeterRegistry meterRegistry) {
+        AppProperties.ReadReplica replica = properties.getReadReplica();
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replica.getUrls().size(); i++) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName(primaryDataSource.getPoolName() + "-replica-" + i);
+            config.setJdbcUrl(replica.getUrls().get(i));
+            config.setUsername(primaryDataSource.getUsername());
+            config.setPassword(primaryDataSource.getPassword());
+            config.setDriverClassName(primaryDataSource.getDriverClassName());
+            config.setMaximumPoolSize(replica.getPoolSize());
+            config.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            config.setReadOnly(true);
+            // Replica mati saat startup tidak menggagalkan aplikasi, cukup tidak dipakai
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new HikariDataSource(config));
+        }
+
+        ReplicaRoutingDataSource routingDataSource =
+                new ReplicaRoutingDataSource(primaryDataSource, replicas, routing, replica.getMaxLag());
+        routingDataSource.afterPropertiesSet();
+        routingDataSource.checkReplicas();
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
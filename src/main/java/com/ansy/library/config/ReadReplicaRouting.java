@@ -0,0 +1,70 @@
+package com.ansy.library.config;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Aturan kapan transaksi readOnly tetap harus ke primary (dibaca {@link ReplicaRoutingDataSource}):
+ * - read-your-writes: user yang baru rent/return dibaca dari primary selama app.read-replica.read-your-writes-window
+ *   (per pod, cukup karena replica dengan lag > max-lag sudah tidak dipakai)
+ * - {@link #onPrimary(Supplier)}: alur yang tidak boleh stale walau sesaat (login setelah verifikasi email, dll)
+ * <p>
+ * Selalu ada walau replica tidak dikonfigurasi, supaya service tidak perlu tahu routing aktif atau tidak.
+ */
+@Component
+public class ReadReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private final long windowMillis;
+    private final Map<String, Long> recentWriters = new ConcurrentHashMap<>();
+
+    public ReadReplicaRouting(AppProperties properties) {
+        this.windowMillis = properties.getReadReplica().getReadYourWritesWindow().toMillis();
+    }
+
+    public static <T> T onPrimary(Supplier<T> call) {
+        if (Boolean.TRUE.equals(PRIMARY.get())) {
+            return call.get();
+        }
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return call.get();
+        } finally {
+            PRIMARY.remove();
+        }
+    }
+
+    public void recordWrite(UUID userId) {
+        recentWriters.put(userId.toString(), System.currentTimeMillis() + windowMillis);
+    }
+
+    boolean requiresPrimary() {
+        if (Boolean.TRUE.equals(PRIMARY.get())) {
+            return true;
+        }
+        if (recentWriters.isEmpty()) {
+            return false;
+        }
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) {
+            return false;
+        }
+        Long until = recentWriters.get(auth.getName());
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void pruneWriters() {
+        long now = System.currentTimeMillis();
+        recentWriters.values().removeIf(until -> until < now);
+    }
+}
@@ -0,0 +1,116 @@
+package com.ansy.library.config;
+
+import com.ansy.library.config.AppMetrics.RedisCommand;
+import com.ansy.library.exception.RedisUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker untuk semua command Redis.
+ * - Setelah N kegagalan berturut-turut (timeout / koneksi putus) circuit open
+ * - Selama open, command tidak dikirim sama sekali: langsung fallback, atau {@link RedisUnavailableException}
+ * - Recovery: PING di background tiap detik, circuit close begitu PING berhasil
+ *   (request user tidak pernah dipakai sebagai probe, jadi latency tetap terjaga selama insiden)
+ */
+@Slf4j
+@Component
+public class RedisCircuitBreaker {
+
+    private final StringRedisTemplate redisTemplate;
+    private final AppMetrics metrics;
+    private final int failureThreshold;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile boolean open;
+
+    public RedisCircuitBreaker(StringRedisTemplate redisTemplate, AppMetrics metrics, AppProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.metrics = metrics;
+        this.failureThreshold = properties.getRedisResilience().getFailureThreshold();
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * @param fallback dipakai saat circuit open atau command gagal
+     */
+    public <T> T call(RedisCommand command, Supplier<T> call, Supplier<T> fallback) {
+        if (open) {
+            metrics.redisFallback(command);
+            return fallback.get();
+        }
+        try {
+            T result = metrics.redis(command, call);
+            onSuccess();
+            return result;
+        } catch (DataAccessException e) {
+            onFailure(command, e);
+            metrics.redisFallback(command);
+            return fallback.get();
+        }
+    }
+
+    /**
+     * Tanpa fallback: gagal cepat dengan {@link RedisUnavailableException} (HTTP 503).
+     */
+    public <T> T call(RedisCommand command, Supplier<T> call) {
+        if (open) {
+            throw new RedisUnavailableException("Redis circuit open, " + command + " ditolak", null);
+        }
+        try {
+            T result = metrics.redis(command, call);
+            onSuccess();
+            return result;
+        } catch (DataAccessException e) {
+            onFailure(command, e);
+            throw new RedisUnavailableException("Redis " + command + " gagal: " + e.getMessage(), e);
+        }
+    }
+
+    public void run(RedisCommand command, Runnable call) {
+        call(command, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void probe() {
+        if (!open) {
+            return;
+        }
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection -> connection.ping());
+            consecutiveFailures.set(0);
+            open = false;
+            metrics.redisCircuit(false);
+            log.info("✅ Redis kembali tersedia, circuit breaker close");
+        } catch (DataAccessException e) {
+            log.debug("Redis probe gagal: {}", e.getMessage());
+        }
+    }
+
+    private void onSuccess() {
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    private void onFailure(RedisCommand command, DataAccessException e) {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold && !open) {
+            open = true;
+            metrics.redisCircuit(true);
+            log.warn("🚨 Redis gagal {}x berturut-turut ({}: {}), circuit breaker open",
+                    failureThreshold, command, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ansy.library.config;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.protocol.CommandType;
+import io.lettuce.core.protocol.ProtocolKeyword;
+import io.lettuce.core.protocol.RedisCommand;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Semua command Redis kita non-blocking (GET/SET/EVALSHA, tanpa MULTI/BLPOP), jadi cukup
+ * 1 koneksi Lettuce yang di-share (shareNativeConnection, default) dan di-pipeline oleh Lettuce.
+ * Pool tidak dipakai: koneksi pool hanya terpakai untuk transaksi/blocking command.
+ * <p>
+ * Deadline per command: EXISTS/GET/MGET (cek session & rate limit di request path) memakai
+ * app.redis-resilience.read-timeout yang lebih ketat, command lain spring.data.redis.timeout.
+ */
+@Configuration
+public class RedisConfig {
+
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(1);
+    private static final Duration DEFAULT_COMMAND_TIMEOUT = Duration.ofMillis(500);
+
+    @Bean
+    public LettuceClientConfigurationBuilderCustomizer lettuceClientOptions(RedisProperties redis, AppProperties properties) {
+        Duration connectTimeout = redis.getConnectTimeout() != null ? redis.getConnectTimeout() : DEFAULT_CONNECT_TIMEOUT;
+        Duration commandTimeout = redis.getTimeout() != null ? redis.getTimeout() : DEFAULT_COMMAND_TIMEOUT;
+        long readTimeoutMillis = properties.getRedisResilience().getReadTimeout().toMillis();
+        long commandTimeoutMillis = commandTimeout.toMillis();
+
+        return builder -> builder
+                .commandTimeout(commandTimeout)
+                .clientOptions(ClientOptions.builder()
+                        .socketOptions(SocketOptions.builder()
+                                .connectTimeout(connectTimeout)
+                                .keepAlive(true)
+                                .tcpNoDelay(true)
+                                .build())
+                        .timeoutOptions(TimeoutOptions.builder()
+                                .timeoutSource(new TimeoutOptions.TimeoutSource() {
+                                    @Override
+                                    public long getTimeout(RedisCommand<?, ?, ?> command) {
+                                        return isRead(command.getType()) ? readTimeoutMillis : commandTimeoutMillis;
+                                    }
+                                })
+                                .build())
+                        // Saat koneksi putus command langsung gagal, bukan antri di buffer sampai timeout
+                        .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                        .autoReconnect(true)
+                        .build());
+    }
+
+    private static boolean isRead(ProtocolKeyword type) {
+        return type == CommandType.EXISTS || type == CommandType.GET || type == CommandType.MGET;
+    }
+}
@@ -0,0 +1,137 @@
+package com.ansy.library.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transaksi readOnly ke replica (round-robin), selain itu ke primary.
+ * - Lag tiap replica dicek tiap 2 detik, replica yang lag-nya > max-lag atau tidak bisa dihubungi dilewati
+ * - Tidak ada replica sehat = semua read ke primary
+ * - Read-your-writes & pengecualian lain lewat {@link ReadReplicaRouting}
+ * <p>
+ * Harus dibungkus LazyConnectionDataSourceProxy: flag readOnly transaksi baru di-set setelah
+ * transaction manager meminta koneksi.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    // Replica yang sedang replay WAL: lag = umur transaksi terakhir yang di-replay.
+    // Jika semua WAL yang diterima sudah di-replay (primary idle), lag = 0.
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END""";
+
+    private final List<DataSource> replicas;
+    private final ReadReplicaRouting routing;
+    private final double maxLagSeconds;
+
+    // Array baru tiap pengecekan (bukan diubah in-place) supaya visible ke semua thread lewat volatile
+    private volatile boolean[] healthy;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                    ReadReplicaRouting routing, Duration maxLag) {
+        this.replicas = List.copyOf(replicas);
+        this.routing = routing;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        // Replica belum dicek = belum dipakai
+        this.healthy = new boolean[replicas.size()];
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(replicaKey(i), this.replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || routing.requiresPrimary()) {
+            return PRIMARY;
+        }
+
+        boolean[] current = healthy;
+        int size = current.length;
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            if (current[index]) {
+                return replicaKey(index);
+            }
+        }
+        return PRIMARY;
+    }
+
+    @Scheduled(fixedDelay = 2000)
+    public void checkReplicas() {
+        boolean[] previous = healthy;
+        boolean[] updated = new boolean[previous.length];
+        for (int i = 0; i < replicas.size(); i++) {
+            boolean ok;
+            String reason;
+            try {
+                double lag = lagSeconds(replicas.get(i));
+                ok = lag <= maxLagSeconds;
+                reason = "lag " + lag + "s";
+            } catch (SQLException e) {
+                ok = false;
+                reason = e.getMessage();
+            }
+
+            if (previous[i] != ok) {
+                if (ok) {
+                    log.info("✅ Read replica {} dipakai kembali ({})", i, reason);
+                } else {
+                    log.warn("⚠️ Read replica {} tidak dipakai, read ke primary ({})", i, reason);
+                }
+            }
+            updated[i] = ok;
+        }
+        healthy = updated;
+    }
+
+    double lagSeconds(DataSource replica) throws SQLException {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(1);
+            try (ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                rs.next();
+                return rs.getDouble(1);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas) {
+            if (replica instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    static String replicaKey(int index) {
+        return "replica-" + index;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ansy.library.config;
+
+import com.ansy.library.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * responseId di body ApiResponse ikut dicatat di span HTTP, supaya laporan user (yang hanya punya
+ * responseId) bisa langsung dicari trace-nya.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class ResponseIdTracingAdvice implements ResponseBodyAdvice<Object> {
+
+    private final AppTracing tracing;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body instanceof ApiResponse<?> apiResponse) {
+            tracing.tag(AppTracing.RESPONSE_ID, apiResponse.getResponseId());
+        }
+        return body;
+    }
+}
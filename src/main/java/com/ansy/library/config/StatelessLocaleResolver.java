@@ -0,0 +1,100 @@
+package com.ansy.library.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.LocaleResolver;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LocaleResolver tanpa HttpSession.
+ * Urutan: claim "locale" di JWT (di-set JwtAuthenticationFilter sebagai request attribute),
+ * lalu Accept-Language, lalu default (id).
+ * <p>
+ * Locale yang didukung di-precompute sekali, hasil parse Accept-Language di-cache per nilai header
+ * (jumlah variasi header dari browser/client sedikit).
+ */
+public class StatelessLocaleResolver implements LocaleResolver {
+
+    public static final String CLAIM_LOCALE_ATTRIBUTE = StatelessLocaleResolver.class.getName() + ".CLAIM_LOCALE";
+
+    // Header bisa dikirim bebas oleh client, cache dibatasi supaya tidak tumbuh tanpa batas
+    private static final int HEADER_CACHE_LIMIT = 256;
+
+    private static final Map<String, Locale> SUPPORTED = new HashMap<>();
+
+    static {
+        for (String language : MessageCatalog.LANGUAGES) {
+            SUPPORTED.put(language, language.equals(MessageCatalog.DEFAULT_LOCALE.getLanguage())
+                    ? MessageCatalog.DEFAULT_LOCALE
+                    : new Locale(language));
+        }
+    }
+
+    private final Map<String, Locale> headerCache = new ConcurrentHashMap<>();
+
+    /**
+     * @return locale yang didukung untuk bahasa tsb, atau null
+     */
+    public static Locale supportedLocale(String language) {
+        return language == null ? null : SUPPORTED.get(language);
+    }
+
+    @Override
+    public Locale resolveLocale(HttpServletRequest request) {
+        if (request.getAttribute(CLAIM_LOCALE_ATTRIBUTE) instanceof Locale claimLocale) {
+            return claimLocale;
+        }
+
+        String header = request.getHeader("Accept-Language");
+        if (header == null || header.isEmpty()) {
+            return MessageCatalog.DEFAULT_LOCALE;
+        }
+
+        Locale cached = headerCache.get(header);
+        if (cached != null) {
+            return cached;
+        }
+
+        Locale resolved = parse(header);
+        if (headerCache.size() < HEADER_CACHE_LIMIT) {
+            headerCache.put(header, resolved);
+        }
+        return resolved;
+    }
+
+    @Override
+    public void setLocale(HttpServletRequest request, HttpServletResponse response, Locale locale) {
+        throw new UnsupportedOperationException("Locale ditentukan dari token / Accept-Language, tidak disimpan di server");
+    }
+
+    static Locale parse(String header) {
+        List<Locale.LanguageRange> ranges;
+        try {
+            // Sudah terurut berdasarkan q-value
+            ranges = Locale.LanguageRange.parse(header);
+        } catch (IllegalArgumentException e) {
+            return MessageCatalog.DEFAULT_LOCALE;
+        }
+
+        for (Locale.LanguageRange range : ranges) {
+            if (range.getWeight() <= 0) {
+                continue;
+            }
+            String tag = range.getRange();
+            if ("*".equals(tag)) {
+                return MessageCatalog.DEFAULT_LOCALE;
+            }
+            int dash = tag.indexOf('-');
+            Locale locale = SUPPORTED.get(dash < 0 ? tag : tag.substring(0, dash));
+            if (locale != null) {
+                return locale;
+            }
+        }
+        return MessageCatalog.DEFAULT_LOCALE;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ansy.library.config;
+
+import io.lettuce.core.tracing.MicrometerTracing;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.boot.autoconfigure.data.redis.ClientResourcesBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TracingConfig {
+
+    // Span per command Redis (tanpa argumen command, supaya token/session id tidak ikut terekspor)
+    @Bean
+    public ClientResourcesBuilderCustomizer lettuceTracing(ObservationRegistry observationRegistry) {
+        return builder -> builder.tracing(new MicrometerTracing(observationRegistry, "dragonfly"));
+    }
+}
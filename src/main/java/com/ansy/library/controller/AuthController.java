@@ -1,5 +1,7 @@
 package com.ansy.library.controller;
 
+import com.ansy.library.config.MessageCatalog;
+import com.ansy.library.config.MessageKey;
 import com.ansy.library.dto.*;
 import com.ansy.library.service.AuthService;
 import com.ansy.library.service.JwtService;
@@ -10,8 +12,6 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.MessageSource;
-import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
@@ -23,21 +23,21 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
-    private final MessageSource messageSource;
+    private final MessageCatalog messageCatalog;
     private final JwtService jwtService;
 
     @PostMapping("/register")
     public ResponseEntity<ApiResponse<String>> register(@Valid @RequestBody RegisterRequest request, HttpServletRequest http) {
         authService.register(request, http);
-        String message = messageSource.getMessage("registration.success", null, LocaleContextHolder.getLocale());
+        String message = messageCatalog.get(MessageKey.REGISTRATION_SUCCESS);
         return ResponseEntity.ok(ApiResponse.success(message));
     }
 
     @GetMapping("/verify")
     public ResponseEntity<ApiResponse<String>> verifyEmail(@RequestParam String token) {
         boolean result = authService.verifyEmail(token);
-        String key = result ? "verification.success" : "verification.invalid";
-        String message = messageSource.getMessage(key, null, LocaleContextHolder.getLocale());
+        MessageKey key = result ? MessageKey.VERIFICATION_SUCCESS : MessageKey.VERIFICATION_INVALID;
+        String message = messageCatalog.get(key);
         return ResponseEntity.ok(result ? ApiResponse.success(message) : ApiResponse.error(message));
     }
 
@@ -56,21 +56,21 @@ public class AuthController {
         String userId = claims.get("uid", String.class);
 
         authService.logout(userId, sessionId);
-        String message = messageSource.getMessage("logout.success", null, LocaleContextHolder.getLocale());
+        String message = messageCatalog.get(MessageKey.LOGOUT_SUCCESS);
         return ResponseEntity.ok(ApiResponse.success(message));
     }
 
     @PostMapping("/forgot-password")
     public ResponseEntity<ApiResponse<String>> forgotPassword(@RequestBody @Valid ForgotPasswordRequest request, HttpServletRequest http) {
         authService.forgotPassword(request, http);
-        String message = messageSource.getMessage("forgotPassword.success", null, LocaleContextHolder.getLocale());
+        String message = messageCatalog.get(MessageKey.FORGOT_PASSWORD_SUCCESS);
         return ResponseEntity.ok(ApiResponse.success(message));
     }
 
     @PostMapping("/reset-password")
     public ResponseEntity<ApiResponse<String>> resetPassword(@RequestBody @Valid ResetPasswordRequest request, HttpServletRequest http) {
         authService.resetPassword(request, http);
-        String message = messageSource.getMessage("resetPassword.success", null, LocaleContextHolder.getLocale());
+        String message = messageCatalog.get(MessageKey.RESET_PASSWORD_SUCCESS);
         return ResponseEntity.ok(ApiResponse.success(message));
     }
 
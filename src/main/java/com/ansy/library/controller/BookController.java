@@ -1,17 +1,22 @@
 package com.ansy.library.controller;
 
+import com.ansy.library.config.MessageCatalog;
+import com.ansy.library.config.MessageKey;
 import com.ansy.library.dto.ApiResponse;
 import com.ansy.library.dto.BookDto;
 import com.ansy.library.service.BookService;
+import com.ansy.library.service.CatalogVersionService;
+import com.ansy.library.service.CatalogVersionService.CatalogVersion;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -22,24 +27,44 @@ import java.util.UUID;
 @Tag(name = "Book")
 public class BookController {
 
+    // Boleh disimpan client (bukan shared cache, butuh token), tapi selalu revalidate pakai ETag
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final BookService bookService;
-    private final MessageSource messageSource;
+    private final MessageCatalog messageCatalog;
+    private final CatalogVersionService catalogVersion;
 
     @GetMapping
-    public ResponseEntity<ApiResponse> getAvailableBooks() {
-        List<BookDto> books = bookService.getAvailableBooks();
-        return ResponseEntity.ok(ApiResponse.success(
-                messageSource.getMessage("book.list.success", null, LocaleContextHolder.getLocale()),
+    public ResponseEntity<ApiResponse> getAvailableBooks(WebRequest request) {
+        CatalogVersion version = catalogVersion.current();
+        if (notModified(version, request)) {
+            return null;
+        }
+        List<BookDto> books = catalogVersion.read(version, bookService::getAvailableBooks);
+        return ResponseEntity.ok().cacheControl(CACHE_CONTROL).body(ApiResponse.success(
+                messageCatalog.get(MessageKey.BOOK_LIST_SUCCESS),
                 books
         ));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse> getBookById(@PathVariable UUID id) {
-        BookDto book = bookService.getBookById(id);
-        return ResponseEntity.ok(ApiResponse.success(
-                messageSource.getMessage("book.one.success", null, LocaleContextHolder.getLocale()),
+    public ResponseEntity<ApiResponse> getBookById(@PathVariable UUID id, WebRequest request) {
+        CatalogVersion version = catalogVersion.current();
+        if (notModified(version, request)) {
+            return null;
+        }
+        BookDto book = catalogVersion.read(version, () -> bookService.getBookById(id));
+        return ResponseEntity.ok().cacheControl(CACHE_CONTROL).body(ApiResponse.success(
+                messageCatalog.get(MessageKey.BOOK_ONE_SUCCESS),
                 book
         ));
     }
+
+    /**
+     * Cek If-None-Match / If-Modified-Since sebelum buku di-load; ETag & Last-Modified ikut di response 200.
+     */
+    private static boolean notModified(CatalogVersion version, WebRequest request) {
+        return version != null && request.checkNotModified(
+                version.etag(LocaleContextHolder.getLocale().getLanguage()), version.modifiedMillis());
+    }
 }
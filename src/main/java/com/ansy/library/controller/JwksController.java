@@ -0,0 +1,31 @@
+package com.ansy.library.controller;
+
+import com.ansy.library.security.JwtKeyManager;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Public key JWT dalam format JWKS (RFC 7517), supaya service lain bisa verifikasi token secara lokal.
+ * Cache max-age dibatasi JwtKeyManager.JWKS_MAX_AGE: key baru baru dipakai sign setelah cache ini pasti expired.
+ * Response sengaja tidak dibungkus ApiResponse karena formatnya standar.
+ */
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Auth")
+public class JwksController {
+
+    private final JwtKeyManager keyManager;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(JwtKeyManager.JWKS_MAX_AGE).cachePublic())
+                .body(keyManager.jwks());
+    }
+}
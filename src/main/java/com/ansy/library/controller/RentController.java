@@ -1,5 +1,7 @@
 package com.ansy.library.controller;
 
+import com.ansy.library.config.MessageCatalog;
+import com.ansy.library.config.MessageKey;
 import com.ansy.library.dto.AdminRentViewResponse;
 import com.ansy.library.dto.ApiResponse;
 import com.ansy.library.dto.RentRequest;
@@ -10,8 +12,6 @@ import com.ansy.library.utils.JwtUtil;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.MessageSource;
-import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -33,7 +33,7 @@ import java.util.List;
 public class RentController {
 
     private final RentService rentService;
-    private final MessageSource messageSource;
+    private final MessageCatalog messageCatalog;
 
     @PostMapping
     public ResponseEntity<ApiResponse> rentBook(@Valid @RequestBody RentRequest request,
@@ -41,7 +41,7 @@ public class RentController {
         String userId = JwtUtil.getCurrentUserId();
         RentResponse rent = rentService.rentBook(java.util.UUID.fromString(userId), request);
         return ResponseEntity.ok(ApiResponse.success(
-                messageSource.getMessage("rent.success", null, LocaleContextHolder.getLocale()),
+                messageCatalog.get(MessageKey.RENT_SUCCESS),
                 rent
         ));
     }
@@ -54,7 +54,7 @@ public class RentController {
         Instant returnedInstant = returnedDate.atStartOfDay().toInstant(ZoneOffset.UTC);
         rentService.returnBook(userId, returnedInstant);
         return ResponseEntity.ok(ApiResponse.success(
-                messageSource.getMessage("rent.return.success", null, LocaleContextHolder.getLocale())
+                messageCatalog.get(MessageKey.RENT_RETURN_SUCCESS)
         ));
     }
 
@@ -63,7 +63,7 @@ public class RentController {
     public ResponseEntity<ApiResponse> getAllUnreturnedBooks() {
         List<AdminRentViewResponse> result = rentService.getAllUnreturnedBooks();
         return ResponseEntity.ok(ApiResponse.success(
-                messageSource.getMessage("rent.list.active", null, LocaleContextHolder.getLocale()),
+                messageCatalog.get(MessageKey.RENT_LIST_ACTIVE),
                 result
         ));
     }
@@ -73,7 +73,7 @@ public class RentController {
     public ResponseEntity<ApiResponse> getOverdueBooks() {
         List<AdminRentViewResponse> result = rentService.getOverdueBooks();
         return ResponseEntity.ok(ApiResponse.success(
-                messageSource.getMessage("rent.list.overdue", null, LocaleContextHolder.getLocale()),
+                messageCatalog.get(MessageKey.RENT_LIST_OVERDUE),
                 result
         ));
     }
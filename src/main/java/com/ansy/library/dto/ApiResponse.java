@@ -1,16 +1,19 @@
 package com.ansy.library.dto;
 
+import com.ansy.library.utils.CachedClock;
+import com.ansy.library.utils.UuidV7;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import org.slf4j.MDC;
 import org.springframework.context.i18n.LocaleContextHolder;
 
-import java.time.Instant;
-import java.util.Locale;
-import java.util.UUID;
-
 @Getter
 @Builder
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@JsonSerialize(using = ApiResponseSerializer.class)
 public class ApiResponse<T> {
     private final boolean success;
     private final int code;
@@ -21,18 +24,7 @@ public class ApiResponse<T> {
     private final String locale;
 
     public static <T> ApiResponse<T> success(String message, T data) {
-        String id = UUID.randomUUID().toString();
-        Locale currentLocale = LocaleContextHolder.getLocale();
-        MDC.put("responseId", id);
-        return ApiResponse.<T>builder()
-                .success(true)
-                .code(200)
-                .message(message)
-                .data(data)
-                .responseId(id)
-                .timestamp(Instant.now().toString())
-                .locale(currentLocale.getLanguage())
-                .build();
+        return create(true, 200, message, data);
     }
 
     public static <T> ApiResponse<T> success(String message) {
@@ -40,22 +32,18 @@ public class ApiResponse<T> {
     }
 
     public static <T> ApiResponse<T> error(int code, String message) {
-        String id = UUID.randomUUID().toString();
-        Locale currentLocale = LocaleContextHolder.getLocale();
-        MDC.put("responseId", id);
-        return ApiResponse.<T>builder()
-                .success(false)
-                .code(code)
-                .message(message)
-                .data(null)
-                .responseId(id)
-                .timestamp(Instant.now().toString())
-                .locale(currentLocale.getLanguage())
-                .build();
+        return create(false, code, message, null);
     }
 
     public static <T> ApiResponse<T> error(String message) {
         return error(200, message);
     }
-}
 
+    private static <T> ApiResponse<T> create(boolean success, int code, String message, T data) {
+        // UUID v7 pakai ThreadLocalRandom, tidak lewat SecureRandom seperti UUID.randomUUID()
+        String id = UuidV7.generate().toString();
+        MDC.put("responseId", id);
+        return new ApiResponse<>(success, code, message, data, id,
+                CachedClock.nowIso(), LocaleContextHolder.getLocale().getLanguage());
+    }
+}
@@ -0,0 +1,83 @@
+package com.ansy.library.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializer manual untuk envelope ApiResponse: tanpa reflection, nama field sudah di-encode sekali.
+ * Pesan lokalisasi (jumlahnya terbatas) juga di-cache dalam bentuk ter-encode.
+ * Urutan field sama dengan serialisasi default sebelumnya.
+ */
+public class ApiResponseSerializer extends StdSerializer<ApiResponse<?>> {
+
+    private static final SerializedString SUCCESS = new SerializedString("success");
+    private static final SerializedString CODE = new SerializedString("code");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString DATA = new SerializedString("data");
+    private static final SerializedString RESPONSE_ID = new SerializedString("responseId");
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializedString LOCALE = new SerializedString("locale");
+
+    // Pesan validasi bisa dinamis, cache dibatasi supaya tidak tumbuh tanpa batas
+    private static final int MESSAGE_CACHE_LIMIT = 512;
+    private static final Map<String, SerializedString> MESSAGES = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public ApiResponseSerializer() {
+        super((Class<ApiResponse<?>>) (Class<?>) ApiResponse.class);
+    }
+
+    @Override
+    public void serialize(ApiResponse<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+
+        gen.writeFieldName(SUCCESS);
+        gen.writeBoolean(value.isSuccess());
+
+        gen.writeFieldName(CODE);
+        gen.writeNumber(value.getCode());
+
+        gen.writeFieldName(MESSAGE);
+        writeMessage(value.getMessage(), gen);
+
+        gen.writeFieldName(DATA);
+        if (value.getData() == null) {
+            gen.writeNull();
+        } else {
+            provider.defaultSerializeValue(value.getData(), gen);
+        }
+
+        gen.writeFieldName(RESPONSE_ID);
+        gen.writeString(value.getResponseId());
+
+        gen.writeFieldName(TIMESTAMP);
+        gen.writeString(value.getTimestamp());
+
+        gen.writeFieldName(LOCALE);
+        gen.writeString(value.getLocale());
+
+        gen.writeEndObject();
+    }
+
+    private void writeMessage(String message, JsonGenerator gen) throws IOException {
+        if (message == null) {
+            gen.writeNull();
+            return;
+        }
+
+        SerializedString encoded = MESSAGES.get(message);
+        if (encoded == null) {
+            encoded = new SerializedString(message);
+            if (MESSAGES.size() < MESSAGE_CACHE_LIMIT) {
+                MESSAGES.put(message, encoded);
+            }
+        }
+        gen.writeString(encoded);
+    }
+}
@@ -0,0 +1,24 @@
+package com.ansy.library.entity;
+
+import java.time.Instant;
+
+/**
+ * Kontrak bersama token sekali pakai (verifikasi email, reset password).
+ * Token disimpan sebagai digest SHA-256 (bytea 32 byte), bukan plaintext.
+ */
+public interface OneTimeToken {
+
+    User getUser();
+
+    byte[] getTokenHash();
+
+    Instant getExpiresAt();
+
+    boolean isUsed();
+
+    void setUsed(boolean used);
+
+    default boolean isUsable(Instant now) {
+        return !isUsed() && getExpiresAt().isAfter(now);
+    }
+}
@@ -13,19 +13,20 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class PasswordResetToken {
+public class PasswordResetToken implements OneTimeToken {
 
     @Id
-    @GeneratedValue
+    @GeneratedUuidV7
     @Column(columnDefinition = "uuid", updatable = false, nullable = false)
-    private UUID id = UUID.randomUUID();
+    private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    // SHA-256 dari token (32 byte), token mentah tidak pernah disimpan
+    @Column(name = "token_hash", nullable = false, unique = true, columnDefinition = "bytea")
+    private byte[] tokenHash;
 
     @Column(nullable = false)
     private Instant expiresAt;
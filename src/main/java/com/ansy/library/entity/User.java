@@ -20,9 +20,9 @@ Lebih baik pakai hanya @Getter, @Setter, @NoArgsConstructor, @AllArgsConstructor
 @Builder
 public class User {
     @Id
-    @GeneratedValue
+    @GeneratedUuidV7
     @Column(columnDefinition = "uuid", updatable = false, nullable = false)
-    private UUID id = UUID.randomUUID();
+    private UUID id;
 
     @Column(nullable = false, unique = true)
     private String email;
@@ -16,7 +16,8 @@ import java.util.UUID;
 public class UserActivityAudit {
 
     @Id
-    private UUID id = UUID.randomUUID();
+    @GeneratedUuidV7
+    private UUID id;
 
     private UUID userId;
 
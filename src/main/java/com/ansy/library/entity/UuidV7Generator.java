@@ -0,0 +1,17 @@
+package com.ansy.library.entity;
+
+import com.ansy.library.utils.UuidV7;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * Hibernate generator untuk {@link GeneratedUuidV7}.
+ * Id dibuat di sisi aplikasi (tanpa round trip ke DB) sehingga insert tetap bisa di-batch.
+ */
+public class UuidV7Generator implements IdentifierGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return UuidV7.generate();
+    }
+}
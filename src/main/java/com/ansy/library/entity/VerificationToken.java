@@ -13,10 +13,10 @@ import java.util.UUID;
 @Builder
 @Entity
 @Table(name = "verification_tokens")
-public class VerificationToken {
+public class VerificationToken implements OneTimeToken {
 
     @Id
-    @GeneratedValue
+    @GeneratedUuidV7
     @Column(columnDefinition = "uuid", updatable = false, nullable = false)
     private UUID id;
 
@@ -24,8 +24,9 @@ public class VerificationToken {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    // SHA-256 dari token (32 byte), token mentah tidak pernah disimpan
+    @Column(name = "token_hash", nullable = false, unique = true, columnDefinition = "bytea")
+    private byte[] tokenHash;
 
     @Column(nullable = false)
     private Instant createdAt;
@@ -1,10 +1,10 @@
 package com.ansy.library.exception;
 
+import com.ansy.library.config.MessageCatalog;
+import com.ansy.library.config.MessageKey;
 import com.ansy.library.dto.ApiResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.MessageSource;
-import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,7 +19,7 @@ import java.util.stream.Collectors;
 @ControllerAdvice
 @RequiredArgsConstructor
 public class GlobalExceptionHandler {
-    private final MessageSource messageSource;
+    private final MessageCatalog messageCatalog;
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<String>> handleValidationException(MethodArgumentNotValidException ex) {
@@ -48,6 +48,15 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ApiResponse.error(429, ex.getMessage()), headers, HttpStatus.TOO_MANY_REQUESTS);
     }
 
+    @ExceptionHandler(RedisUnavailableException.class)
+    public ResponseEntity<ApiResponse<String>> handleRedisUnavailable(RedisUnavailableException ex) {
+        log.warn("⚠️ {}", ex.getMessage());
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Retry-After", "5");
+        String message = messageCatalog.get(MessageKey.GENERAL_SERVICE_UNAVAILABLE);
+        return new ResponseEntity<>(ApiResponse.error(503, message), headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(UnauthorizedException.class)
     public ResponseEntity<ApiResponse<String>> handleUnauthorized(UnauthorizedException ex) {
         return new ResponseEntity<>(ApiResponse.error(401, ex.getMessage()), HttpStatus.UNAUTHORIZED);
@@ -63,7 +72,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiResponse<String>> handleGeneric(Exception ex) {
         log.error("Root exception class: {}", ex.getClass().getName());
         log.error("Process failed, rolling back transaction: {}", ex.getMessage(), ex);
-        String message = messageSource.getMessage("general.internalServerError", null, LocaleContextHolder.getLocale());
+        String message = messageCatalog.get(MessageKey.GENERAL_INTERNAL_SERVER_ERROR);
         return ResponseEntity.internalServerError().body(ApiResponse.error(500, message));
     }
 }
@@ -0,0 +1,14 @@
+package com.ansy.library.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Redis down / circuit open untuk operasi yang tidak punya fallback (login, refresh, logout).
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class RedisUnavailableException extends RuntimeException {
+    public RedisUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,16 @@
+package com.ansy.library.repository;
+
+import com.ansy.library.entity.OneTimeToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@NoRepositoryBean
+public interface OneTimeTokenRepository<T extends OneTimeToken> extends JpaRepository<T, UUID> {
+    Optional<T> findByTokenHash(byte[] tokenHash);
+
+    int deleteExpiredOrUsedChunk(Instant now, int limit);
+}
@@ -1,14 +1,19 @@
 package com.ansy.library.repository;
 
 import com.ansy.library.entity.PasswordResetToken;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.Optional;
-import java.util.UUID;
 
-public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, UUID> {
-    Optional<PasswordResetToken> findByToken(String token);
+public interface PasswordResetTokenRepository extends OneTimeTokenRepository<PasswordResetToken> {
 
-    int deleteByExpiresAtBeforeOrUsedIsTrue(Instant now);
+    // Hapus per chunk (max :limit row per transaksi) supaya lock & WAL tetap kecil
+    @Override
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM password_reset_tokens WHERE ctid IN " +
+            "(SELECT ctid FROM password_reset_tokens WHERE expires_at < :now OR used = true LIMIT :limit)", nativeQuery = true)
+    int deleteExpiredOrUsedChunk(Instant now, int limit);
 }
@@ -1,20 +0,0 @@
-package com.ansy.library.repository;
-
-import com.ansy.library.entity.RefreshToken;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.time.Instant;
-import java.util.Optional;
-import java.util.UUID;
-
-public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
-    Optional<RefreshToken> findByToken(String token);
-
-    @Transactional
-    @Modifying
-    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now")
-    int deleteAllExpiredSince(Instant now);
-}
@@ -1,11 +1,19 @@
 package com.ansy.library.repository;
 
 import com.ansy.library.entity.VerificationToken;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
-import java.util.UUID;
+import java.time.Instant;
 
-public interface VerificationTokenRepository extends JpaRepository<VerificationToken, UUID> {
-    Optional<VerificationToken> findByToken(String token);
+public interface VerificationTokenRepository extends OneTimeTokenRepository<VerificationToken> {
+
+    // Hapus per chunk (max :limit row per transaksi) supaya lock & WAL tetap kecil
+    @Override
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM verification_tokens WHERE ctid IN " +
+            "(SELECT ctid FROM verification_tokens WHERE expires_at < :now OR used = true LIMIT :limit)", nativeQuery = true)
+    int deleteExpiredOrUsedChunk(Instant now, int limit);
 }
@@ -0,0 +1,10 @@
+package com.ansy.library.security;
+
+import java.util.UUID;
+
+/**
+ * Claim access token yang dipakai di request path (uid, role, sid, locale).
+ * locale = bahasa user (mis. "en"), null untuk token lama yang belum membawa claim ini.
+ */
+public record AccessTokenClaims(UUID userId, String role, String sessionId, String locale) {
+}
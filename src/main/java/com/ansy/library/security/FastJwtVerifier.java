@@ -0,0 +1,412 @@
+package com.ansy.library.security;
+
+import com.ansy.library.entity.Role;
+import io.jsonwebtoken.security.SignatureException;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Function;
+
+/**
+ * Verifier khusus untuk access token yang kita terbitkan sendiri (ES256, atau HS256 lama).
+ * <p>
+ * Tanpa Jackson dan tanpa Map claims: token di-copy ke buffer dari pool, signature dicek dengan
+ * Signature/Mac yang ikut di-reuse dari pool, lalu header & payload di-scan langsung dari byte.
+ * Pool dibatasi (bukan ThreadLocal): dengan virtual thread tiap request thread baru, ThreadLocal = alokasi per request.
+ * Alokasi per request hanya String kid, UUID, String sid/locale dan record hasil.
+ * <p>
+ * Jika ada yang tidak sesuai format yang kita terbitkan (claim lain, escape, tipe lain, kid tidak dikenal,
+ * token expired, dll) method {@link #verify} mengembalikan null supaya caller fallback ke jjwt.
+ * Signature yang salah langsung ditolak dengan {@link SignatureException}.
+ */
+public final class FastJwtVerifier {
+
+    private static final int ABSENT = 0;
+    private static final int STRING = 1;
+    private static final int NUMBER = 2;
+
+    private static final byte[][] HEADER_KEYS = {bytes("alg"), bytes("kid")};
+    private static final int H_ALG = 0;
+    private static final int H_KID = 1;
+
+    private static final byte[][] PAYLOAD_KEYS = {bytes("uid"), bytes("role"), bytes("sid"), bytes("iat"), bytes("exp"), bytes("locale")};
+    private static final int P_UID = 0;
+    private static final int P_ROLE = 1;
+    private static final int P_SID = 2;
+    private static final int P_EXP = 4;
+    private static final int P_LOCALE = 5;
+
+    private static final byte[] ES256 = bytes("ES256");
+    private static final byte[] HS256 = bytes("HS256");
+
+    private static final String[] ROLE_NAMES = Arrays.stream(Role.values()).map(Enum::name).toArray(String[]::new);
+    private static final byte[][] ROLE_BYTES = Arrays.stream(ROLE_NAMES).map(FastJwtVerifier::bytes).toArray(byte[][]::new);
+
+    private static final int[] BASE64URL = new int[128];
+
+    static {
+        Arrays.fill(BASE64URL, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = i;
+        }
+    }
+
+    private final Function<String, PublicKey> keyLookup;
+    private final SecretKey legacyKey;
+    // Verifikasi murni CPU: lebih dari ~2x jumlah core yang jalan bersamaan tidak mungkin, sisanya dibuang ke GC
+    private final BlockingQueue<State> pool = new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors() * 2);
+
+    /**
+     * @param keyLookup kid -> public key ES256 (null jika tidak dikenal)
+     * @param legacyKey secret HS256 lama, boleh null
+     */
+    public FastJwtVerifier(Function<String, PublicKey> keyLookup, SecretKey legacyKey) {
+        this.keyLookup = keyLookup;
+        this.legacyKey = legacyKey;
+    }
+
+    /**
+     * @return claims jika token valid, null jika harus fallback ke parser lengkap
+     * @throws SignatureException jika signature tidak cocok
+     */
+    public AccessTokenClaims verify(String token, long nowMillis) {
+        State st = pool.poll();
+        if (st == null) {
+            st = new State();
+        }
+        try {
+            return verify(st, token, nowMillis);
+        } finally {
+            pool.offer(st);
+        }
+    }
+
+    private AccessTokenClaims verify(State st, String token, long nowMillis) {
+        int dot1 = token.indexOf('.');
+        int dot2 = dot1 < 0 ? -1 : token.indexOf('.', dot1 + 1);
+        if (dot2 < 0 || token.indexOf('.', dot2 + 1) >= 0) {
+            return null;
+        }
+
+        int length = token.length();
+        st.ensureCapacity(length);
+        byte[] input = st.input;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c > 0x7F) {
+                return null;
+            }
+            input[i] = (byte) c;
+        }
+
+        // Header
+        int headerLength = decodeBase64Url(input, 0, dot1, st.decoded);
+        if (headerLength < 0 || !scanObject(st.decoded, headerLength, HEADER_KEYS, st.fields)
+                || st.fields[H_ALG * 3] != STRING) {
+            return null;
+        }
+
+        int signatureLength = decodeBase64Url(input, dot2 + 1, length, st.signature);
+        if (signatureLength < 0) {
+            return null;
+        }
+
+        boolean valid;
+        try {
+            if (equalsRange(st.decoded, st.fields[H_ALG * 3 + 1], st.fields[H_ALG * 3 + 2], ES256)) {
+                if (st.fields[H_KID * 3] != STRING || signatureLength != 64) {
+                    return null;
+                }
+                // Selalu lewat keyLookup: kid yang sudah di-prune JwtKeyManager harus langsung tidak dikenal
+                PublicKey key = keyLookup.apply(new String(st.decoded, st.fields[H_KID * 3 + 1], st.fields[H_KID * 3 + 2],
+                        StandardCharsets.UTF_8));
+                if (key == null) {
+                    return null;
+                }
+                st.ecdsa.initVerify(key);
+                st.ecdsa.update(input, 0, dot2);
+                valid = st.ecdsa.verify(st.signature, 0, signatureLength);
+            } else if (equalsRange(st.decoded, st.fields[H_ALG * 3 + 1], st.fields[H_ALG * 3 + 2], HS256)
+                    && legacyKey != null && signatureLength == 32) {
+                Mac mac = st.mac(legacyKey);
+                mac.update(input, 0, dot2);
+                mac.doFinal(st.macOut, 0);
+                valid = constantTimeEquals(st.macOut, st.signature, 32);
+            } else {
+                return null;
+            }
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+
+        if (!valid) {
+            throw new SignatureException("JWT signature does not match locally computed signature");
+        }
+
+        // Payload
+        int payloadLength = decodeBase64Url(input, dot1 + 1, dot2, st.decoded);
+        int[] f = st.fields;
+        if (payloadLength < 0 || !scanObject(st.decoded, payloadLength, PAYLOAD_KEYS, f)
+                || f[P_UID * 3] != STRING || f[P_ROLE * 3] != STRING || f[P_SID * 3] != STRING || f[P_EXP * 3] != NUMBER
+                || f[P_LOCALE * 3] == NUMBER) {
+            return null;
+        }
+
+        long exp = parseLong(st.decoded, f[P_EXP * 3 + 1], f[P_EXP * 3 + 2]);
+        if (exp < 0 || exp * 1000 <= nowMillis) {
+            return null; // expired -> biar jjwt yang melempar ExpiredJwtException
+        }
+
+        UUID userId = parseUuid(st.decoded, f[P_UID * 3 + 1], f[P_UID * 3 + 2]);
+        if (userId == null) {
+            return null;
+        }
+
+        String role = role(st.decoded, f[P_ROLE * 3 + 1], f[P_ROLE * 3 + 2]);
+        String sessionId = new String(st.decoded, f[P_SID * 3 + 1], f[P_SID * 3 + 2], StandardCharsets.UTF_8);
+        String locale = f[P_LOCALE * 3] == STRING
+                ? new String(st.decoded, f[P_LOCALE * 3 + 1], f[P_LOCALE * 3 + 2], StandardCharsets.UTF_8)
+                : null;
+        return new AccessTokenClaims(userId, role, sessionId, locale);
+    }
+
+    /**
+     * Scan object JSON flat: value hanya string tanpa escape atau integer positif.
+     * Hasil per key: fields[k*3] = tipe, fields[k*3+1] = offset, fields[k*3+2] = panjang.
+     */
+    static boolean scanObject(byte[] b, int len, byte[][] keys, int[] fields) {
+        Arrays.fill(fields, 0, keys.length * 3, ABSENT);
+        int i = skipWhitespace(b, 0, len);
+        if (i >= len || b[i] != '{') {
+            return false;
+        }
+        i = skipWhitespace(b, i + 1, len);
+        if (i < len && b[i] == '}') {
+            return skipWhitespace(b, i + 1, len) == len;
+        }
+
+        while (true) {
+            if (i >= len || b[i] != '"') {
+                return false;
+            }
+            int keyStart = ++i;
+            while (i < len && b[i] != '"') {
+                if (b[i] == '\\') {
+                    return false;
+                }
+                i++;
+            }
+            if (i >= len) {
+                return false;
+            }
+            int k = indexOfKey(keys, b, keyStart, i - keyStart);
+            if (k < 0 || fields[k * 3] != ABSENT) {
+                return false; // claim tidak dikenal atau duplikat
+            }
+
+            i = skipWhitespace(b, i + 1, len);
+            if (i >= len || b[i] != ':') {
+                return false;
+            }
+            i = skipWhitespace(b, i + 1, len);
+            if (i >= len) {
+                return false;
+            }
+
+            if (b[i] == '"') {
+                int valueStart = ++i;
+                while (i < len && b[i] != '"') {
+                    if (b[i] == '\\') {
+                        return false;
+                    }
+                    i++;
+                }
+                if (i >= len) {
+                    return false;
+                }
+                fields[k * 3] = STRING;
+                fields[k * 3 + 1] = valueStart;
+                fields[k * 3 + 2] = i - valueStart;
+                i++;
+            } else if (b[i] >= '0' && b[i] <= '9') {
+                int valueStart = i;
+                while (i < len && b[i] >= '0' && b[i] <= '9') {
+                    i++;
+                }
+                fields[k * 3] = NUMBER;
+                fields[k * 3 + 1] = valueStart;
+                fields[k * 3 + 2] = i - valueStart;
+            } else {
+                return false;
+            }
+
+            i = skipWhitespace(b, i, len);
+            if (i >= len) {
+                return false;
+            }
+            if (b[i] == ',') {
+                i = skipWhitespace(b, i + 1, len);
+            } else if (b[i] == '}') {
+                return skipWhitespace(b, i + 1, len) == len;
+            } else {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Decode base64url (tanpa padding) dari src[from, to) ke dst.
+     *
+     * @return jumlah byte hasil decode, -1 jika karakter tidak valid
+     */
+    static int decodeBase64Url(byte[] src, int from, int to, byte[] dst) {
+        if ((to - from) % 4 == 1) {
+            return -1;
+        }
+        int accumulator = 0;
+        int bits = 0;
+        int out = 0;
+        for (int i = from; i < to; i++) {
+            int value = BASE64URL[src[i]];
+            if (value < 0) {
+                return -1;
+            }
+            accumulator = (accumulator << 6) | value;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                if (out >= dst.length) {
+                    return -1;
+                }
+                dst[out++] = (byte) (accumulator >> bits);
+                accumulator &= (1 << bits) - 1;
+            }
+        }
+        return out;
+    }
+
+    private static int skipWhitespace(byte[] b, int i, int len) {
+        while (i < len && (b[i] == ' ' || b[i] == '\t' || b[i] == '\n' || b[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int indexOfKey(byte[][] keys, byte[] b, int start, int len) {
+        for (int k = 0; k < keys.length; k++) {
+            if (equalsRange(b, start, len, keys[k])) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean equalsRange(byte[] b, int start, int len, byte[] expected) {
+        return Arrays.equals(b, start, start + len, expected, 0, expected.length);
+    }
+
+    private static boolean constantTimeEquals(byte[] a, byte[] b, int len) {
+        int diff = 0;
+        for (int i = 0; i < len; i++) {
+            diff |= a[i] ^ b[i];
+        }
+        return diff == 0;
+    }
+
+    private static long parseLong(byte[] b, int start, int len) {
+        if (len > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = start; i < start + len; i++) {
+            value = value * 10 + (b[i] - '0');
+        }
+        return value;
+    }
+
+    private static UUID parseUuid(byte[] b, int start, int len) {
+        if (len != 36) {
+            return null;
+        }
+        long msb = 0;
+        long lsb = 0;
+        for (int i = 0; i < 36; i++) {
+            byte c = b[start + i];
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return null;
+                }
+                continue;
+            }
+            int hex = Character.digit(c, 16);
+            if (hex < 0) {
+                return null;
+            }
+            if (i < 18) {
+                msb = (msb << 4) | hex;
+            } else {
+                lsb = (lsb << 4) | hex;
+            }
+        }
+        return new UUID(msb, lsb);
+    }
+
+    private static String role(byte[] b, int start, int len) {
+        for (int i = 0; i < ROLE_BYTES.length; i++) {
+            if (equalsRange(b, start, len, ROLE_BYTES[i])) {
+                return ROLE_NAMES[i];
+            }
+        }
+        return new String(b, start, len, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Buffer & objek kripto, dipinjam dari pool selama 1 verifikasi.
+     */
+    private static final class State {
+        private byte[] input = new byte[1024];
+        private byte[] decoded = new byte[1024];
+        private final byte[] signature = new byte[64];
+        private final byte[] macOut = new byte[32];
+        private final int[] fields = new int[PAYLOAD_KEYS.length * 3];
+        private final Signature ecdsa;
+        private Mac mac;
+
+        private State() {
+            try {
+                // Format P1363 (R||S 64 byte) = format signature JWS, tidak perlu konversi ke DER
+                this.ecdsa = Signature.getInstance("SHA256withECDSAinP1363Format");
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void ensureCapacity(int length) {
+            if (input.length < length) {
+                input = new byte[length];
+                decoded = new byte[length];
+            }
+        }
+
+        private Mac mac(SecretKey key) throws GeneralSecurityException {
+            if (mac == null) {
+                mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+            }
+            return mac;
+        }
+    }
+}
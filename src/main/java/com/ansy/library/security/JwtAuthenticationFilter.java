@@ -1,16 +1,18 @@
 package com.ansy.library.security;
 
+import com.ansy.library.config.AccessLogFilter;
+import com.ansy.library.config.AppTracing;
+import com.ansy.library.config.MessageCatalog;
+import com.ansy.library.config.MessageKey;
+import com.ansy.library.config.StatelessLocaleResolver;
 import com.ansy.library.service.JwtService;
 import com.ansy.library.service.RedisSessionService;
-import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.MessageSource;
-import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
@@ -23,6 +25,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 @Component
@@ -31,7 +34,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final RedisSessionService redisSessionService;
-    private final MessageSource messageSource;
+    private final MessageCatalog messageCatalog;
+    private final AppTracing tracing;
 
     private void writeError(HttpServletResponse response, int status, boolean successStatus, String message) throws IOException {
         response.setStatus(status);
@@ -53,27 +57,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String token = authHeader.substring(7);
-            Claims claims = jwtService.parseToken(token);
-            String sessionId = claims.get("sid", String.class);
-            UUID userId = UUID.fromString(claims.get("uid", String.class));
-            String role = claims.get("role", String.class);
+            AccessTokenClaims claims = tracing.inSpan("jwt.verify", () -> jwtService.parseAccessToken(token));
+            String sessionId = claims.sessionId();
+            UUID userId = claims.userId();
+            String role = claims.role();
             List<GrantedAuthority> authorities = new ArrayList<>();
             authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
 
             if (!redisSessionService.sessionExists(userId, sessionId)) {
 //                response.setStatus(HttpStatus.UNAUTHORIZED.value());
-                String message = messageSource.getMessage("general.invalidSession", null, LocaleContextHolder.getLocale());
+                String message = messageCatalog.get(MessageKey.GENERAL_INVALID_SESSION);
 //                response.getWriter().write();
                 writeError(response, HttpStatus.UNAUTHORIZED.value(), false, message);
                 return;
             }
 
+            // Bahasa user dari token, dibaca StatelessLocaleResolver di DispatcherServlet
+            Locale locale = StatelessLocaleResolver.supportedLocale(claims.locale());
+            if (locale != null) {
+                request.setAttribute(StatelessLocaleResolver.CLAIM_LOCALE_ATTRIBUTE, locale);
+            }
+
+            request.setAttribute(AccessLogFilter.USER_ID_ATTRIBUTE, userId);
+
             UsernamePasswordAuthenticationToken auth =
                     new UsernamePasswordAuthenticationToken(userId.toString(), null, authorities);
             SecurityContextHolder.getContext().setAuthentication(auth);
         } catch (JwtException | IllegalArgumentException e) {
 //            response.setStatus(HttpStatus.UNAUTHORIZED.value());
-            String message = messageSource.getMessage("general.invalidToken", null, LocaleContextHolder.getLocale());
+            String message = messageCatalog.get(MessageKey.GENERAL_INVALID_TOKEN);
 //            response.getWriter().write(message);
             writeError(response, HttpStatus.UNAUTHORIZED.value(), false, message);
             return;
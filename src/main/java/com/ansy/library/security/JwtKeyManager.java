@@ -0,0 +1,284 @@
+package com.ansy.library.security;
+
+import com.ansy.library.config.AppProperties;
+import com.ansy.library.service.RedisLockService;
+import com.ansy.library.utils.UuidV7;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Key management untuk JWT ES256.
+ * - Key pair disimpan di Redis (hash JWT_KEYS) supaya semua pod memakai key yang sama
+ * - Private key dienkripsi AES-256-GCM dengan app.jwt-key-encryption-key (secret di luar Redis, kid sebagai AAD);
+ *   private key plaintext dari versi sebelumnya dienkripsi ulang oleh pod pemegang lock rotasi
+ * - Key baru dipublikasikan di JWKS dulu, baru dipakai sign setelah KEY_ACTIVATION_DELAY (> max-age cache JWKS
+ *   + interval reload pod lain), supaya verifier luar tidak menolak kid baru; key lama tetap dipakai verify
+ *   sampai token terakhirnya expired
+ * - Rotasi terjadwal (app.jwt-key-rotation), hanya 1 pod yang rotasi (distributed lock)
+ * - Public key di-parse sekali lalu di-cache per kid, dipublikasikan lewat /.well-known/jwks.json
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JwtKeyManager {
+
+    private static final String KEYS_HASH = "JWT_KEYS";
+    private static final String ROTATION_LOCK = "JWT_KEY_ROTATION";
+    public static final Duration JWKS_MAX_AGE = Duration.ofMinutes(5);
+    // max-age JWKS + reload terjadwal (60 detik) + margin
+    static final Duration KEY_ACTIVATION_DELAY = JWKS_MAX_AGE.plusMinutes(2);
+    private static final long RELOAD_MIN_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+    private static final String ENCRYPTED_PREFIX = "gcm.";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisLockService lockService;
+    private final AppProperties properties;
+
+    private volatile Map<String, SigningKey> keys = Map.of();
+    private volatile SigningKey current;
+    private volatile SigningKey newest;
+    private volatile Map<String, Object> jwks = Map.of("keys", List.of());
+    private volatile long lastReloadNanos;
+    private volatile boolean plaintextStored;
+    private SecretKey keyEncryptionKey;
+
+    public record SigningKey(String kid, Instant createdAt, PrivateKey privateKey, ECPublicKey publicKey) {
+    }
+
+    @PostConstruct
+    public void init() {
+        String configured = properties.getJwtKeyEncryptionKey();
+        if (configured != null && !configured.isBlank()) {
+            byte[] key = Base64.getDecoder().decode(configured.trim());
+            if (key.length != 32) {
+                throw new IllegalStateException("app.jwt-key-encryption-key harus 32 byte (base64)");
+            }
+            keyEncryptionKey = new SecretKeySpec(key, "AES");
+        } else {
+            log.warn("⚠️ app.jwt-key-encryption-key kosong, private key JWT disimpan plaintext di Redis");
+        }
+        reload();
+        if (current == null) {
+            // Pertama kali jalan: belum ada key sama sekali
+            store(generate());
+            reload();
+        }
+    }
+
+    public SigningKey currentKey() {
+        return current;
+    }
+
+    /**
+     * @return public key untuk kid, atau null jika tidak dikenal
+     */
+    public ECPublicKey verificationKey(String kid) {
+        SigningKey key = keys.get(kid);
+        if (key == null && System.nanoTime() - lastReloadNanos > RELOAD_MIN_INTERVAL_NANOS) {
+            // Kemungkinan key baru hasil rotasi pod lain, reload dibatasi max 1x per detik
+            reload();
+            key = keys.get(kid);
+        }
+        return key != null ? key.publicKey() : null;
+    }
+
+    public Map<String, Object> jwks() {
+        return jwks;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void reload() {
+        lastReloadNanos = System.nanoTime();
+        HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+        Map<String, String> stored = hash.entries(KEYS_HASH);
+
+        Map<String, SigningKey> loaded = new HashMap<>();
+        boolean plaintext = false;
+        for (Map.Entry<String, String> entry : stored.entrySet()) {
+            SigningKey cached = keys.get(entry.getKey());
+            loaded.put(entry.getKey(), cached != null ? cached : decode(entry.getKey(), entry.getValue()));
+            plaintext |= keyEncryptionKey != null && !entry.getValue().contains(":" + ENCRYPTED_PREFIX);
+        }
+
+        keys = Map.copyOf(loaded);
+        plaintextStored = plaintext;
+        newest = loaded.values().stream()
+                .max(Comparator.comparing(SigningKey::createdAt))
+                .orElse(null);
+        // Key yang belum lewat KEY_ACTIVATION_DELAY hanya dipublikasikan; saat bootstrap belum ada key lain
+        Instant activeBefore = Instant.now().minus(KEY_ACTIVATION_DELAY);
+        current = loaded.values().stream()
+                .filter(key -> !key.createdAt().isAfter(activeBefore))
+                .max(Comparator.comparing(SigningKey::createdAt))
+                .orElse(newest);
+
+        List<JWK> jwkList = new ArrayList<>();
+        for (SigningKey key : loaded.values()) {
+            jwkList.add(new ECKey.Builder(Curve.P_256, key.publicKey())
+                    .keyID(key.kid())
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(JWSAlgorithm.ES256)
+                    .build());
+        }
+        jwks = new JWKSet(jwkList).toJSONObject(true);
+    }
+
+    @Scheduled(cron = "0 */10 * * * *")
+    public void rotateIfDue() {
+        if (!isRotationDue() && !plaintextStored) {
+            return;
+        }
+
+        String owner = lockService.tryAcquire(ROTATION_LOCK, Duration.ofMinutes(1));
+        if (owner == null) {
+            return;
+        }
+
+        try {
+            reload();
+            if (isRotationDue()) {
+                SigningKey key = generate();
+                store(key);
+                log.info("🔑 JWT key baru {} dipublikasikan, dipakai sign setelah {}", key.kid(), KEY_ACTIVATION_DELAY);
+            }
+            if (plaintextStored) {
+                keys.values().forEach(this::store);
+                log.info("🔐 {} private key JWT plaintext di Redis dienkripsi ulang", keys.size());
+            }
+            pruneRetiredKeys();
+            reload();
+        } finally {
+            lockService.release(ROTATION_LOCK, owner);
+        }
+    }
+
+    // Dihitung dari key terbaru (termasuk yang belum aktif), supaya key pending tidak memicu rotasi ulang
+    private boolean isRotationDue() {
+        return newest == null
+                || newest.createdAt().plus(properties.getJwtKeyRotation()).isBefore(Instant.now());
+    }
+
+    /**
+     * Key yang sudah tidak dipakai sign dihapus setelah semua token yang ditandatanganinya expired.
+     */
+    private void pruneRetiredKeys() {
+        Instant threshold = Instant.now()
+                .minus(properties.getJwtKeyRotation())
+                .minusSeconds(properties.getJwtExpiration())
+                .minus(Duration.ofHours(1));
+
+        for (SigningKey key : keys.values()) {
+            if (key != current && key.createdAt().isBefore(threshold)) {
+                redisTemplate.opsForHash().delete(KEYS_HASH, key.kid());
+                log.info("🔑 JWT key {} dihapus (retired)", key.kid());
+            }
+        }
+    }
+
+    private SigningKey generate() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair pair = generator.generateKeyPair();
+            return new SigningKey(UuidV7.generate().toString(), Instant.now(),
+                    pair.getPrivate(), (ECPublicKey) pair.getPublic());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Gagal generate JWT key pair", e);
+        }
+    }
+
+    // Format value: {createdAtMillis}:{private}:{base64 X.509 public}
+    // private = gcm.{base64 IV}.{base64 ciphertext PKCS#8}, atau base64 PKCS#8 tanpa encryption key (versi lama / dev)
+    private void store(SigningKey key) {
+        Base64.Encoder encoder = Base64.getEncoder();
+        String value = key.createdAt().toEpochMilli()
+                + ":" + encryptPrivate(key.kid(), key.privateKey().getEncoded())
+                + ":" + encoder.encodeToString(key.publicKey().getEncoded());
+        redisTemplate.opsForHash().put(KEYS_HASH, key.kid(), value);
+    }
+
+    private String encryptPrivate(String kid, byte[] pkcs8) {
+        Base64.Encoder encoder = Base64.getEncoder();
+        if (keyEncryptionKey == null) {
+            return encoder.encodeToString(pkcs8);
+        }
+        try {
+            byte[] iv = new byte[IV_BYTES];
+            RANDOM.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(TAG_BITS, iv));
+            // AAD = kid: ciphertext tidak bisa dipindah ke kid lain
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            return ENCRYPTED_PREFIX + encoder.encodeToString(iv) + "." + encoder.encodeToString(cipher.doFinal(pkcs8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Gagal enkripsi JWT key " + kid, e);
+        }
+    }
+
+    private byte[] decryptPrivate(String kid, String value) throws GeneralSecurityException {
+        Base64.Decoder decoder = Base64.getDecoder();
+        if (!value.startsWith(ENCRYPTED_PREFIX)) {
+            return decoder.decode(value);
+        }
+        if (keyEncryptionKey == null) {
+            throw new IllegalStateException("JWT key " + kid + " terenkripsi, app.jwt-key-encryption-key belum diset");
+        }
+        int separator = value.indexOf('.', ENCRYPTED_PREFIX.length());
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(TAG_BITS,
+                decoder.decode(value.substring(ENCRYPTED_PREFIX.length(), separator))));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        return cipher.doFinal(decoder.decode(value.substring(separator + 1)));
+    }
+
+    private SigningKey decode(String kid, String value) {
+        try {
+            String[] parts = value.split(":");
+            Base64.Decoder decoder = Base64.getDecoder();
+            KeyFactory factory = KeyFactory.getInstance("EC");
+            PrivateKey privateKey = factory.generatePrivate(new PKCS8EncodedKeySpec(decryptPrivate(kid, parts[1])));
+            ECPublicKey publicKey = (ECPublicKey) factory.generatePublic(new X509EncodedKeySpec(decoder.decode(parts[2])));
+            return new SigningKey(kid, Instant.ofEpochMilli(Long.parseLong(parts[0])), privateKey, publicKey);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("JWT key " + kid + " tidak valid", e);
+        }
+    }
+}
@@ -1,53 +1,228 @@
 package com.ansy.library.security;
 
+import com.ansy.library.config.AppMetrics;
+import com.ansy.library.config.AppMetrics.RedisCommand;
+import com.ansy.library.config.AppProperties;
+import com.ansy.library.config.RedisCircuitBreaker;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
+/**
+ * Rate limit login & request.
+ * - Gagal login per email:ip: 5x = blok 15 menit
+ * - Credential stuffing (app.credential-stuffing): jumlah email berbeda yang gagal dari 1 IP dan jumlah IP berbeda
+ *   yang gagal untuk 1 email, dihitung HyperLogLog (PFADD/PFCOUNT, max ~12 KB per key berapapun kardinalitasnya)
+ *   per bucket waktu; sliding window = PFCOUNT gabungan beberapa bucket terakhir.
+ *   Lewat batas = IP/email diblok, durasinya naik 2x tiap pelanggaran berikutnya (sampai max-block-duration)
+ * - Blok email hanya jika app.credential-stuffing.email-block (default off: siapa pun bisa mengunci akun orang lain).
+ *   IP yang pernah login sukses ke email tsb. (trusted-ip-ttl) tidak kena blok email
+ * - Cek saat login: 1 MGET (counter + blok IP + blok email + IP terpercaya), catat gagal: 1 Lua script
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class RedisRateLimiter {
 
     private final StringRedisTemplate redis;
+    private final AppMetrics metrics;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final AppProperties properties;
 
     private static final int MAX_ATTEMPTS = 5;
     private static final Duration BLOCK_DURATION = Duration.ofMinutes(15);
 
+    // INCR + EXPIRE (hanya saat key baru) dalam 1 round trip; tidak increment jika sudah mencapai limit
+    // KEYS: 1 = counter
+    // ARGV: 1 = ttl (detik), 2 = limit (0 = tanpa limit)
+    // Return: nilai counter baru, atau -1 jika sudah mencapai limit
+    private static final DefaultRedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>("""
+            local limit = tonumber(ARGV[2])
+            if limit > 0 then
+                local current = tonumber(redis.call('GET', KEYS[1]) or '0')
+                if current >= limit then return -1 end
+            end
+            local value = redis.call('INCR', KEYS[1])
+            if value == 1 then redis.call('EXPIRE', KEYS[1], ARGV[1]) end
+            return value
+            """, Long.class);
+
+    // KEYS: 1 = counter email:ip, 2 = blok IP, 3 = pelanggaran IP, 4 = blok email, 5 = pelanggaran email,
+    //       6..5+n = HLL email per IP (bucket sekarang lebih dulu), 6+n..5+2n = HLL IP per email
+    // ARGV: 1 = ttl counter, 2 = email, 3 = ip, 4 = n bucket, 5 = ttl bucket, 6 = batas email per IP,
+    //       7 = batas IP per email (0 = blok email nonaktif), 8 = durasi blok awal,
+    //       9 = durasi blok max (sekaligus ttl pelanggaran)
+    // Return: 0 = normal, 1 = IP baru diblok, 2 = email baru diblok, 3 = keduanya
+    private static final DefaultRedisScript<Long> FAILURE_SCRIPT = new DefaultRedisScript<>("""
+            local value = redis.call('INCR', KEYS[1])
+            if value == 1 then redis.call('EXPIRE', KEYS[1], ARGV[1]) end
+
+            local n = tonumber(ARGV[4])
+            local ipBuckets = {}
+            local emailBuckets = {}
+            for i = 1, n do
+                ipBuckets[i] = KEYS[5 + i]
+                emailBuckets[i] = KEYS[5 + n + i]
+            end
+            local ipsPerEmail = tonumber(ARGV[7])
+            redis.call('PFADD', ipBuckets[1], ARGV[2])
+            redis.call('EXPIRE', ipBuckets[1], ARGV[5])
+            if ipsPerEmail > 0 then
+                redis.call('PFADD', emailBuckets[1], ARGV[3])
+                redis.call('EXPIRE', emailBuckets[1], ARGV[5])
+            end
+
+            local function escalate(block, strike)
+                if redis.call('EXISTS', block) == 1 then return 0 end
+                local strikes = redis.call('INCR', strike)
+                if strikes == 1 then redis.call('EXPIRE', strike, ARGV[9]) end
+                local duration = math.min(tonumber(ARGV[8]) * 2 ^ (strikes - 1), tonumber(ARGV[9]))
+                redis.call('SET', block, strikes, 'EX', math.floor(duration))
+                return 1
+            end
+
+            local result = 0
+            if redis.call('PFCOUNT', unpack(ipBuckets)) >= tonumber(ARGV[6]) then
+                result = result + escalate(KEYS[2], KEYS[3])
+            end
+            if ipsPerEmail > 0 and redis.call('PFCOUNT', unpack(emailBuckets)) >= ipsPerEmail then
+                result = result + 2 * escalate(KEYS[4], KEYS[5])
+            end
+            return result
+            """, Long.class);
+
     public boolean isBlocked(String email, String ip) {
-        String key = getKey(email, ip);
-        String attempts = redis.opsForValue().get(key);
-        return attempts != null && Integer.parseInt(attempts) >= MAX_ATTEMPTS;
+        boolean emailBlock = properties.getCredentialStuffing().isEmailBlock();
+        String normalized = normalize(email);
+        List<String> keys = emailBlock
+                ? List.of(getKey(email, ip), blockKey("IP", ip), blockKey("EMAIL", normalized), trustedKey(normalized, ip))
+                : List.of(getKey(email, ip), blockKey("IP", ip));
+        // Redis down: fail open, login tetap gagal di commit session jika Redis memang tidak tersedia
+        List<String> values = circuitBreaker.call(RedisCommand.RATE_LIMIT_GET, () -> redis.opsForValue().multiGet(keys), () -> null);
+        if (values == null) {
+            return false;
+        }
+
+        String attempts = values.get(0);
+        if (attempts != null && Integer.parseInt(attempts) >= MAX_ATTEMPTS) {
+            metrics.rateLimitBlocked(AppMetrics.RateLimiter.LOGIN);
+            return true;
+        }
+        if (values.get(1) != null) {
+            metrics.rateLimitBlocked(AppMetrics.RateLimiter.STUFFING_IP);
+            return true;
+        }
+        // Pemilik akun dari IP yang sudah pernah sukses tetap bisa login walau email sedang diblok
+        if (emailBlock && values.get(2) != null && values.get(3) == null) {
+            metrics.rateLimitBlocked(AppMetrics.RateLimiter.STUFFING_EMAIL);
+            return true;
+        }
+        return false;
     }
 
     public void recordFailure(String email, String ip) {
-        String key = getKey(email, ip);
-        Long current = redis.opsForValue().increment(key);
-        if (current != null && current == 1) {
-            redis.expire(key, BLOCK_DURATION);
+        AppProperties.CredentialStuffing config = properties.getCredentialStuffing();
+        if (!config.isEnabled()) {
+            increment(getKey(email, ip), BLOCK_DURATION.toSeconds(), 0);
+            return;
+        }
+
+        String normalized = normalize(email);
+        int buckets = config.getBuckets();
+        long bucketSeconds = Math.max(1, config.getWindow().toSeconds() / buckets);
+        long current = Instant.now().getEpochSecond() / bucketSeconds;
+
+        List<String> keys = new ArrayList<>(5 + 2 * buckets);
+        keys.add(getKey(email, ip));
+        keys.add(blockKey("IP", ip));
+        keys.add(strikeKey("IP", ip));
+        keys.add(blockKey("EMAIL", normalized));
+        keys.add(strikeKey("EMAIL", normalized));
+        for (int i = 0; i < buckets; i++) {
+            keys.add("STUFFING:EMAILS_PER_IP:" + ip + ":" + (current - i));
+        }
+        for (int i = 0; i < buckets; i++) {
+            keys.add("STUFFING:IPS_PER_EMAIL:" + normalized + ":" + (current - i));
+        }
+
+        Long escalated = circuitBreaker.call(RedisCommand.RATE_LIMIT_INCREMENT, () -> redis.execute(FAILURE_SCRIPT, keys,
+                String.valueOf(BLOCK_DURATION.toSeconds()), normalized, ip, String.valueOf(buckets),
+                String.valueOf(config.getWindow().toSeconds() + bucketSeconds),
+                String.valueOf(config.getEmailsPerIp()), String.valueOf(config.isEmailBlock() ? config.getIpsPerEmail() : 0),
+                String.valueOf(config.getBlockDuration().toSeconds()),
+                String.valueOf(config.getMaxBlockDuration().toSeconds())), () -> null);
+
+        if (escalated != null && (escalated & 1) != 0) {
+            log.warn("🚨 Credential stuffing: IP {} gagal login ke >= {} email berbeda dalam {}, IP diblok",
+                    ip, config.getEmailsPerIp(), config.getWindow());
+        }
+        if (escalated != null && (escalated & 2) != 0) {
+            log.warn("🚨 Credential stuffing: email {} gagal login dari >= {} IP berbeda dalam {}, email diblok",
+                    normalized, config.getIpsPerEmail(), config.getWindow());
         }
     }
 
+    /**
+     * Login sukses: IP ditandai terpercaya untuk email ini (hanya jika blok email aktif, 1 SET tambahan).
+     */
+    public void recordSuccess(String email, String ip) {
+        AppProperties.CredentialStuffing config = properties.getCredentialStuffing();
+        if (!config.isEnabled() || !config.isEmailBlock()) {
+            return;
+        }
+        String key = trustedKey(normalize(email), ip);
+        // Redis down: tanpa tanda, IP ini hanya ikut kena blok email berikutnya
+        circuitBreaker.call(RedisCommand.RATE_LIMIT_TRUST, () -> {
+            redis.opsForValue().set(key, "1", config.getTrustedIpTtl());
+            return null;
+        }, () -> null);
+    }
+
     public boolean acquireRateLimit(String key, int seconds, int maxLimit) {
-        // Periksa limit
-        String attempts = redis.opsForValue().get(key);
-        if (attempts != null && Integer.parseInt(attempts) >= maxLimit) {
+        Long current = increment(key, seconds, maxLimit);
+        // Redis down (null): fail closed, tanpa counter tidak ada batas kirim email
+        if (current == null || current < 0) {
+            metrics.rateLimitBlocked(AppMetrics.RateLimiter.REQUEST);
             return false;
         }
-        // Jika belum melebihi limit maka increase attempt
-        Long current = redis.opsForValue().increment(key);
-        if (current != null && current == 1) {
-            redis.expire(key, Duration.ofSeconds(seconds));
-        }
         return true;
     }
 
     public void clear(String email, String ip) {
-        redis.delete(getKey(email, ip));
+        String key = getKey(email, ip);
+        circuitBreaker.call(RedisCommand.RATE_LIMIT_CLEAR, () -> redis.delete(key));
+    }
+
+    private Long increment(String key, long ttlSeconds, int limit) {
+        return circuitBreaker.call(RedisCommand.RATE_LIMIT_INCREMENT, () -> redis.execute(INCREMENT_SCRIPT,
+                List.of(key), String.valueOf(ttlSeconds), String.valueOf(limit)), () -> null);
     }
 
-    private String getKey(String email, String ip) {
+    public static String getKey(String email, String ip) {
         return "RATE_LIMIT:LOGIN_FAIL:" + email + ":" + ip;
     }
+
+    private static String blockKey(String type, String value) {
+        return "STUFFING:BLOCK:" + type + ":" + value;
+    }
+
+    private static String trustedKey(String email, String ip) {
+        return "STUFFING:TRUSTED:" + email + ":" + ip;
+    }
+
+    private static String strikeKey(String type, String value) {
+        return "STUFFING:STRIKE:" + type + ":" + value;
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
 }
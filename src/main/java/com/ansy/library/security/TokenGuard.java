@@ -0,0 +1,245 @@
+package com.ansy.library.security;
+
+import com.ansy.library.config.AppMetrics;
+import com.ansy.library.config.AppMetrics.RedisCommand;
+import com.ansy.library.config.AppMetrics.TokenCheck;
+import com.ansy.library.config.AppMetrics.TokenType;
+import com.ansy.library.config.AppProperties;
+import com.ansy.library.config.RedisCircuitBreaker;
+import com.ansy.library.exception.RedisUnavailableException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pra-validasi token verifikasi email, reset password & refresh token sebelum lookup DB/Redis.
+ * Format: base64url(random 32 byte | expiresAt 4 byte epoch detik | HMAC-SHA256 12 byte) = 64 karakter
+ * - HMAC per tipe token (+ context, mis. userId.familyId refresh token): token acak, palsu,
+ *   atau tipe lain ditolak di memori tanpa I/O
+ * - Token expired ditolak dari expiresAt di dalam token, DB tetap jadi penentu akhir (expiry & used)
+ * - Token yang sudah terpakai diingat lokal sampai expired, replay-nya tidak query DB lagi
+ * - Key HMAC dari app.token-guard.mac-secret (secret yang di-mount, sama di semua pod).
+ *   Kosong = mode transisi: key bersama di Redis (TOKEN_MAC_KEY, plaintext), dibuat pod pertama
+ * - Key belum bisa dimuat (Redis down saat start): pod tetap jalan, token diteruskan ke DB tanpa pra-validasi
+ *   (UNCHECKED) dan issue token gagal 503 sampai key termuat
+ */
+@Slf4j
+@Component
+public class TokenGuard {
+
+    private static final String KEY_NAME = "TOKEN_MAC_KEY";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int RANDOM_BYTES = 32;
+    private static final int SIGNED_BYTES = RANDOM_BYTES + Integer.BYTES;
+    private static final int TAG_BYTES = 12;
+    private static final int TOKEN_BYTES = SIGNED_BYTES + TAG_BYTES;
+    static final int TOKEN_LENGTH = 64;
+    // Token lama (sebelum ada HMAC): 32 byte random base64url
+    static final int LEGACY_LENGTH = 43;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final AppMetrics metrics;
+    private final AppProperties.TokenGuard config;
+
+    // token -> expiresAt (epoch ms)
+    private final Map<String, Long> consumed = new ConcurrentHashMap<>();
+    private volatile Mac prototype;
+
+    public TokenGuard(StringRedisTemplate redisTemplate, RedisCircuitBreaker circuitBreaker, AppMetrics metrics,
+                      AppProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.metrics = metrics;
+        this.config = properties.getTokenGuard();
+    }
+
+    @PostConstruct
+    public void init() {
+        String secret = config.getMacSecret();
+        if (secret != null && !secret.isBlank()) {
+            byte[] key = Base64.getDecoder().decode(secret.trim());
+            if (key.length < 32) {
+                throw new IllegalStateException("app.token-guard.mac-secret minimal 32 byte (base64)");
+            }
+            this.prototype = mac(key);
+            return;
+        }
+        log.warn("⚠️ app.token-guard.mac-secret kosong, key HMAC token dibaca dari Redis (plaintext)");
+        if (loadSharedKey() == null) {
+            log.warn("⚠️ Key HMAC token belum bisa dimuat dari Redis, pra-validasi token nonaktif sampai Redis pulih");
+        }
+    }
+
+    public String issue(TokenType type, Instant expiresAt) {
+        return issue(type, expiresAt, "");
+    }
+
+    /**
+     * @param expiresAt dibulatkan ke detik, simpan nilai yang sama di DB/Redis
+     * @param context   data lain yang harus ikut di-verify bersama token (mis. bagian depan refresh token)
+     */
+    public String issue(TokenType type, Instant expiresAt, String context) {
+        Mac key = currentKey();
+        if (key == null) {
+            throw new RedisUnavailableException("Key HMAC token belum termuat", null);
+        }
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        ByteBuffer.wrap(bytes, RANDOM_BYTES, Integer.BYTES).putInt((int) expiresAt.getEpochSecond());
+        System.arraycopy(tag(key, type, context, bytes), 0, bytes, SIGNED_BYTES, TAG_BYTES);
+        return ENCODER.encodeToString(bytes);
+    }
+
+    public boolean admit(TokenType type, String token) {
+        return admit(type, token, "");
+    }
+
+    /**
+     * @return false = token pasti tidak valid, tidak perlu lookup DB/Redis
+     */
+    public boolean admit(TokenType type, String token, String context) {
+        TokenCheck result = check(type, token, context);
+        metrics.tokenCheck(type, result);
+        return result == TokenCheck.PASSED || result == TokenCheck.LEGACY || result == TokenCheck.UNCHECKED;
+    }
+
+    /**
+     * Token sudah dipakai (atau expired) menurut DB. Di dalam transaksi baru dicatat setelah commit.
+     */
+    public void consumed(String token, Instant expiresAt) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(token, expiresAt);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(token, expiresAt);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void pruneConsumed() {
+        long now = System.currentTimeMillis();
+        consumed.values().removeIf(until -> until < now);
+    }
+
+    TokenCheck check(TokenType type, String token, String context) {
+        if (token == null) {
+            return TokenCheck.MALFORMED;
+        }
+        if (token.length() == LEGACY_LENGTH) {
+            if (!config.isAcceptLegacy()) {
+                return TokenCheck.MALFORMED;
+            }
+            return consumed.containsKey(token) ? TokenCheck.CONSUMED : TokenCheck.LEGACY;
+        }
+        if (token.length() != TOKEN_LENGTH) {
+            return TokenCheck.MALFORMED;
+        }
+
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(token);
+        } catch (IllegalArgumentException e) {
+            return TokenCheck.MALFORMED;
+        }
+        if (bytes.length != TOKEN_BYTES) {
+            return TokenCheck.MALFORMED;
+        }
+        Mac key = currentKey();
+        if (key == null) {
+            // DB tetap penentu akhir
+            return TokenCheck.UNCHECKED;
+        }
+        if (!MessageDigest.isEqual(tag(key, type, context, bytes), Arrays.copyOfRange(bytes, SIGNED_BYTES, TOKEN_BYTES))) {
+            return TokenCheck.FORGED;
+        }
+
+        long expiresAt = Integer.toUnsignedLong(ByteBuffer.wrap(bytes, RANDOM_BYTES, Integer.BYTES).getInt());
+        if (expiresAt <= Instant.now().getEpochSecond()) {
+            return TokenCheck.EXPIRED;
+        }
+        return consumed.containsKey(token) ? TokenCheck.CONSUMED : TokenCheck.PASSED;
+    }
+
+    private void remember(String token, Instant expiresAt) {
+        // Penuh = tidak dicatat, replay tetap ditolak DB
+        if (consumed.size() < config.getConsumedCacheSize()) {
+            consumed.put(token, expiresAt.toEpochMilli());
+        }
+    }
+
+    private Mac currentKey() {
+        Mac key = prototype;
+        return key != null ? key : loadSharedKey();
+    }
+
+    /**
+     * Mode transisi tanpa mac-secret. Lewat circuit breaker: Redis down = null, dicoba lagi di pemakaian berikutnya.
+     */
+    private Mac loadSharedKey() {
+        if (config.getMacSecret() != null && !config.getMacSecret().isBlank()) {
+            return prototype;
+        }
+        String encoded = circuitBreaker.call(RedisCommand.TOKEN_MAC_KEY_LOAD, () -> {
+            byte[] generated = new byte[32];
+            RANDOM.nextBytes(generated);
+            redisTemplate.opsForValue().setIfAbsent(KEY_NAME, Base64.getEncoder().encodeToString(generated));
+            return redisTemplate.opsForValue().get(KEY_NAME);
+        }, () -> null);
+        if (encoded == null) {
+            return null;
+        }
+        Mac mac = mac(Base64.getDecoder().decode(encoded));
+        this.prototype = mac;
+        return mac;
+    }
+
+    private static Mac mac(byte[] key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(key, ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] tag(Mac key, TokenType type, String context, byte[] token) {
+        try {
+            Mac mac = (Mac) key.clone();
+            mac.update(type.name().getBytes(StandardCharsets.US_ASCII));
+            mac.update((byte) 0);
+            mac.update(context.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(token, 0, SIGNED_BYTES);
+            return Arrays.copyOf(mac.doFinal(), TAG_BYTES);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,43 +1,64 @@
 package com.ansy.library.service;
 
+import com.ansy.library.config.AppMetrics;
+import com.ansy.library.config.AppMetrics.LoginPhase;
+import com.ansy.library.config.AppMetrics.TokenType;
+import com.ansy.library.config.AppTracing;
+import com.ansy.library.config.MessageCatalog;
+import com.ansy.library.config.MessageKey;
+import com.ansy.library.config.ReadReplicaRouting;
 import com.ansy.library.dto.*;
 import com.ansy.library.entity.*;
 import com.ansy.library.exception.RateLimitException;
 import com.ansy.library.exception.UnauthorizedException;
 import com.ansy.library.repository.*;
 import com.ansy.library.security.RedisRateLimiter;
+import com.ansy.library.security.TokenGuard;
 import com.ansy.library.utils.EmailValidatorUtil;
+import com.ansy.library.utils.TaskScope;
+import com.ansy.library.utils.TokenUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 
+/**
+ * Tidak ada transaksi di level class: koneksi DB hanya dipinjam selama query/insert itu sendiri,
+ * tidak selama BCrypt, Redis, atau SMTP. Unit yang butuh atomic (lazy load + update) memakai
+ * {@link TransactionTemplate}, token dicek {@link TokenGuard} dulu sebelum transaksi dimulai.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class AuthService {
 
     private final UserRepository userRepository;
     private final UserActivityAuditRepository auditRepository;
     private final VerificationTokenRepository tokenRepository;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenService refreshTokenService;
     private final MailService mailService;
-    private final MessageSource messageSource;
+    private final MessageCatalog messageCatalog;
     private final JwtService jwtService;
     private final RedisSessionService redisSessionService;
     private final RedisRateLimiter rateLimiter;
+    private final AppMetrics metrics;
+    private final AppTracing tracing;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailFilterService emailFilter;
+    private final TokenGuard tokenGuard;
 
     public void register(RegisterRequest request, HttpServletRequest http) {
         String email = request.email();
@@ -48,49 +69,58 @@ public class AuthService {
         try {
             Instant limit = Instant.now().minus(60, ChronoUnit.MINUTES);
             if (auditRepository.countByIpAddressAndActivityTypeAndActivityTimeAfter(ip, "REGISTER", limit) > 10) {
-                String message = messageSource.getMessage("registration.rateLimit", null, LocaleContextHolder.getLocale());
+                String message = messageCatalog.get(MessageKey.REGISTRATION_RATE_LIMIT);
                 throw new RateLimitException(message);
             }
 
             if (!EmailValidatorUtil.isEmailDomainValid(email)) {
-                String message = messageSource.getMessage("registration.invalidDomain", null, LocaleContextHolder.getLocale());
+                String message = messageCatalog.get(MessageKey.REGISTRATION_INVALID_DOMAIN);
                 throw new IllegalArgumentException(message);
             }
 
-            if (userRepository.existsByEmail(email)) {
-                String message = messageSource.getMessage("registration.duplicateEmail", null, LocaleContextHolder.getLocale());
+            // Email baru (bloom filter: pasti belum ada) tidak perlu query DB
+            if (emailFilter.exists(email, () -> ReadReplicaRouting.onPrimary(() -> userRepository.existsByEmail(email)))) {
+                String message = messageCatalog.get(MessageKey.REGISTRATION_DUPLICATE_EMAIL);
                 throw new IllegalStateException(message);
             }
 
+            // BCrypt di luar transaksi, tidak memegang koneksi DB
             String salt = BCrypt.gensalt();
             String hashedPassword = BCrypt.hashpw(request.password(), salt);
+            Instant expiresAt = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+            String token = tokenGuard.issue(TokenType.VERIFICATION, expiresAt);
+
+            User user;
+            try {
+                user = transactionTemplate.execute(status -> {
+                    // Flush langsung: register bersamaan dengan email sama ditolak UNIQUE di dalam transaksi
+                    User saved = userRepository.saveAndFlush(User.builder()
+                            .email(email)
+                            .password(hashedPassword)
+                            .role(Role.USER)
+                            .emailVerified(false)
+                            .build());
+
+                    tokenRepository.save(VerificationToken.builder()
+                            .user(saved)
+                            .tokenHash(TokenUtil.sha256(token))
+                            .expiresAt(expiresAt)
+                            .used(false)
+                            .build());
+                    return saved;
+                });
+            } catch (DataIntegrityViolationException e) {
+                String message = messageCatalog.get(MessageKey.REGISTRATION_DUPLICATE_EMAIL);
+                throw new IllegalStateException(message);
+            }
 
-            User user = User.builder()
-                    .email(email)
-                    .password(hashedPassword)
-                    .role(Role.USER)
-                    .emailVerified(false)
-                    .build();
-
-            user = userRepository.save(user);
+            // Email dikirim setelah commit (koneksi DB sudah kembali ke pool selama SMTP)
+            sendVerificationOrDiscard(user, token);
+            emailFilter.add(email);
             userId = user.getId();
             success = true;
-
-            // Send email verification
-            String token = UUID.randomUUID().toString();
-            VerificationToken verificationToken = VerificationToken.builder()
-                    .user(user)
-                    .token(token)
-                    .expiresAt(Instant.now().plus(1, ChronoUnit.DAYS))
-                    .used(false)
-                    .build();
-
-            tokenRepository.save(verificationToken);
-
-            mailService.sendVerificationEmail(user.getEmail(), token);
         } finally {
             auditRepository.save(UserActivityAudit.builder()
-                    .id(UUID.randomUUID())
                     .userId(userId)
                     .email(email)
                     .activityType("REGISTER")
@@ -101,44 +131,87 @@ public class AuthService {
         }
     }
 
+    /**
+     * Belum ada endpoint kirim ulang: jika SMTP gagal, user (dan token-nya via ON DELETE CASCADE) dihapus
+     * supaya email yang sama bisa register ulang.
+     */
+    private void sendVerificationOrDiscard(User user, String token) {
+        try {
+            mailService.sendVerificationEmail(user.getEmail(), token);
+        } catch (RuntimeException e) {
+            log.warn("📧 Email verifikasi gagal dikirim, user {} dihapus: {}", user.getId(), e.getMessage());
+            try {
+                userRepository.deleteById(user.getId());
+            } catch (RuntimeException cleanup) {
+                e.addSuppressed(cleanup);
+            }
+            throw e;
+        }
+    }
+
     public boolean verifyEmail(String token) {
-        Optional<VerificationToken> opt = tokenRepository.findByToken(token);
-        if (opt.isEmpty()) return false;
+        // Token acak / palsu / expired ditolak sebelum transaksi (tanpa koneksi DB)
+        if (!tokenGuard.admit(TokenType.VERIFICATION, token)) return false;
+
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Optional<VerificationToken> opt = tokenRepository.findByTokenHash(TokenUtil.sha256(token));
+            if (opt.isEmpty()) return false;
 
-        VerificationToken v = opt.get();
-        if (v.isUsed() || v.getExpiresAt().isBefore(Instant.now())) return false;
+            VerificationToken v = opt.get();
+            tokenGuard.consumed(token, v.getExpiresAt());
+            if (!v.isUsable(Instant.now())) return false;
 
-        v.setUsed(true);
-        v.getUser().setEmailVerified(true);
+            v.setUsed(true);
+            v.getUser().setEmailVerified(true);
 
-        tokenRepository.save(v);
-        userRepository.save(v.getUser());
-        return true;
+            tokenRepository.save(v);
+            userRepository.save(v.getUser());
+            return true;
+        }));
     }
 
+    /**
+     * Tanpa transaksi: lookup user (1 query, koneksi langsung kembali ke pool), BCrypt + JWT + Redis
+     * tanpa koneksi DB, lalu 1 insert audit.
+     */
     public ApiResponse<LoginResponse> login(LoginRequest request, HttpServletRequest http) {
         String email = request.email();
         String ip = http.getRemoteAddr();
         String ua = http.getHeader("User-Agent");
         UUID userId = null;
         boolean success = false;
-
-        if (rateLimiter.isBlocked(email, ip)) {
-            String message = messageSource.getMessage("login.rateLimit", null, LocaleContextHolder.getLocale());
+        long loginStart = System.nanoTime();
+
+        // Rate limit (Redis) dulu: client yang diblok (credential stuffing) tidak boleh memakan query DB
+        long phaseStart = System.nanoTime();
+        boolean blocked = rateLimiter.isBlocked(email, ip);
+        metrics.loginPhase(LoginPhase.RATE_LIMIT, phaseStart);
+        if (blocked) {
+            metrics.login(AppMetrics.Outcome.REJECTED, loginStart);
+            String message = messageCatalog.get(MessageKey.LOGIN_RATE_LIMIT);
             throw new RateLimitException(message);
         }
+        phaseStart = System.nanoTime();
+        // Selalu dari primary: login sesaat setelah verifikasi email tidak boleh membaca replica yang tertinggal
+        Optional<Object> found = ReadReplicaRouting.onPrimary(() -> userRepository.findByEmailIgnoreCase(email));
+        metrics.loginPhase(LoginPhase.LOOKUP, phaseStart);
 
+        AppMetrics.Outcome outcome = AppMetrics.Outcome.ERROR;
         try {
-            User user = (User) userRepository.findByEmailIgnoreCase(request.email())
-                    .orElseThrow(() -> new UnauthorizedException("login.invalidCredentials"));
+            User user = (User) found
+                    .orElseThrow(() -> new UnauthorizedException(messageCatalog.get(MessageKey.LOGIN_INVALID_CREDENTIALS)));
 
             if (!user.isEmailVerified()) {
-                String message = messageSource.getMessage("login.unverifiedEmail", null, LocaleContextHolder.getLocale());
+                String message = messageCatalog.get(MessageKey.LOGIN_UNVERIFIED_EMAIL);
                 throw new UnauthorizedException(message);
             }
 
-            if (!BCrypt.checkpw(request.password(), user.getPassword())) {
-                String message = messageSource.getMessage("login.invalidCredentials", null, LocaleContextHolder.getLocale());
+            phaseStart = System.nanoTime();
+            boolean passwordMatches = tracing.inSpan("login.bcrypt",
+                    () -> BCrypt.checkpw(request.password(), user.getPassword()));
+            metrics.loginPhase(LoginPhase.BCRYPT, phaseStart);
+            if (!passwordMatches) {
+                String message = messageCatalog.get(MessageKey.LOGIN_INVALID_CREDENTIALS);
                 throw new UnauthorizedException(message);
             }
 
@@ -147,19 +220,36 @@ public class AuthService {
             Instant expiredAt = issuedAt.plusSeconds(jwtService.getExpiration());
             userId = user.getId();
 
-            String token = jwtService.generateToken(user.getId(), String.valueOf(user.getRole()), sessionId, issuedAt, expiredAt);
-            redisSessionService.storeSession(user.getId(), sessionId, expiredAt);
-
-            String refreshTokenStr = UUID.randomUUID().toString();
-            RefreshToken refreshToken = RefreshToken.builder()
-                    .user(user)
-                    .token(refreshTokenStr)
-                    .expiresAt(issuedAt.plus(7, ChronoUnit.DAYS))
-                    .revoked(false)
-                    .build();
-            refreshTokenRepository.save(refreshToken);
+            String role = String.valueOf(user.getRole());
+            String locale = LocaleContextHolder.getLocale().getLanguage();
+
+            // Sign JWT (CPU) paralel dengan commit Redis (session + refresh token + reset counter gagal login)
+            String token;
+            String refreshTokenStr;
+            try (TaskScope scope = TaskScope.open()) {
+                Supplier<String> signed = scope.fork(() -> {
+                    long start = System.nanoTime();
+                    String jwt = tracing.inSpan("login.token_sign", () -> jwtService.generateToken(user.getId(),
+                            role, sessionId, locale, issuedAt, expiredAt));
+                    metrics.loginPhase(LoginPhase.TOKEN_SIGN, start);
+                    return jwt;
+                });
+                Supplier<String> issued = scope.fork(() -> {
+                    long start = System.nanoTime();
+                    String refresh = refreshTokenService.issueOnLogin(user.getId(),
+                            sessionId, expiredAt, RedisRateLimiter.getKey(email, ip));
+                    rateLimiter.recordSuccess(email, ip);
+                    metrics.loginPhase(LoginPhase.SESSION_STORE, start);
+                    return refresh;
+                });
+                scope.join();
+                token = signed.get();
+                refreshTokenStr = issued.get();
+            }
+            outcome = AppMetrics.Outcome.SUCCESS;
+            success = true;
 
-            String message = messageSource.getMessage("login.success", null, LocaleContextHolder.getLocale());
+            String message = messageCatalog.get(MessageKey.LOGIN_SUCCESS);
             return ApiResponse.success(message,
                     LoginResponse.builder()
                             .token(token)
@@ -168,11 +258,13 @@ public class AuthService {
                             .build()
             );
         } catch (UnauthorizedException e) {
+            outcome = AppMetrics.Outcome.REJECTED;
             rateLimiter.recordFailure(email, ip);
             throw e;
         } finally {
+            // Audit tidak ikut fan-out: nilai success baru diketahui setelah commit Redis berhasil
+            phaseStart = System.nanoTime();
             auditRepository.save(UserActivityAudit.builder()
-                    .id(UUID.randomUUID())
                     .userId(userId)
                     .email(email)
                     .activityType("LOGIN")
@@ -180,57 +272,56 @@ public class AuthService {
                     .ipAddress(ip)
                     .userAgent(ua)
                     .build());
+            metrics.loginPhase(LoginPhase.AUDIT, phaseStart);
+            metrics.login(outcome, loginStart);
         }
     }
 
     public ApiResponse<LoginResponse> refreshToken(String refreshTokenStr, HttpServletRequest request) {
-        RefreshToken token = refreshTokenRepository.findByToken(refreshTokenStr)
-                .orElseThrow(() -> {
-                    String message = messageSource.getMessage("refresh.invalid", null, LocaleContextHolder.getLocale());
-                    return new UnauthorizedException(message);
-                });
-
-        if (token.isRevoked() || token.getExpiresAt().isBefore(Instant.now())) {
-            String message = messageSource.getMessage("refresh.expired", null, LocaleContextHolder.getLocale());
-            throw new UnauthorizedException(message);
-        }
-
-        User user = token.getUser();
-
-        // invalidate old JWT session
+        // session JWT lama (jika ada) ikut dihapus di dalam script rotasi
+        UUID oldUserId = null;
+        String oldSessionId = null;
         String oldJwt = request.getHeader("Authorization");
         if (oldJwt != null && oldJwt.startsWith("Bearer ")) {
-            String jwt = oldJwt.substring(7);
-            String oldSessionId = jwtService.parseToken(jwt).get("sid", String.class);
-            redisSessionService.invalidateSession(user.getId(), oldSessionId);
+            Claims oldClaims = jwtService.parseToken(oldJwt.substring(7));
+            oldUserId = UUID.fromString(oldClaims.get("uid", String.class));
+            oldSessionId = oldClaims.get("sid", String.class);
         }
 
         String sessionId = UUID.randomUUID().toString();
         Instant issuedAt = Instant.now();
         Instant expiredAt = issuedAt.plusSeconds(jwtService.getExpiration());
 
-        String jwt = jwtService.generateToken(user.getId(), String.valueOf(user.getRole()), sessionId, issuedAt, expiredAt);
-        redisSessionService.storeSession(user.getId(), sessionId, expiredAt);
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(
+                refreshTokenStr, sessionId, expiredAt, oldUserId, oldSessionId);
+
+        if (rotation.status() == RefreshTokenService.Status.INVALID) {
+            String message = messageCatalog.get(MessageKey.REFRESH_INVALID);
+            throw new UnauthorizedException(message);
+        }
 
-        // revoke old refresh token and generate a new one
-        token.setRevoked(true);
-        refreshTokenRepository.save(token);
+        if (rotation.status() != RefreshTokenService.Status.OK) {
+            if (rotation.status() == RefreshTokenService.Status.REUSED) {
+                log.warn("🚨 Refresh token reuse terdeteksi, family dicabut untuk user {}", rotation.userId());
+            }
+            String message = messageCatalog.get(MessageKey.REFRESH_EXPIRED);
+            throw new UnauthorizedException(message);
+        }
 
-        String newRefreshTokenStr = UUID.randomUUID().toString();
-        RefreshToken newRefreshToken = RefreshToken.builder()
-                .user(user)
-                .token(newRefreshTokenStr)
-                .expiresAt(issuedAt.plus(7, ChronoUnit.DAYS))
-                .revoked(false)
-                .build();
-        refreshTokenRepository.save(newRefreshToken);
+        // Role dibaca ulang: perubahan role / user dihapus berlaku di refresh berikutnya, bukan 7 hari kemudian
+        User user = ReadReplicaRouting.onPrimary(() -> userRepository.findById(rotation.userId()))
+                .orElseThrow(() -> new UnauthorizedException(messageCatalog.get(MessageKey.REFRESH_INVALID)));
 
-        String message = messageSource.getMessage("refresh.success", null, LocaleContextHolder.getLocale());
+        // Locale dari claim token lama (jika dikirim) atau Accept-Language
+        String jwt = jwtService.generateToken(rotation.userId(), String.valueOf(user.getRole()), sessionId,
+                LocaleContextHolder.getLocale().getLanguage(), issuedAt, expiredAt);
+
+        String message = messageCatalog.get(MessageKey.REFRESH_SUCCESS);
         return ApiResponse.success(message,
                 LoginResponse.builder()
                         .token(jwt)
                         .expiredAt(expiredAt)
-                        .refreshToken(newRefreshTokenStr)
+                        .refreshToken(rotation.refreshToken())
                         .build()
         );
     }
@@ -239,7 +330,6 @@ public class AuthService {
         redisSessionService.invalidateSession(UUID.fromString(userId), sessionId);
 
         auditRepository.save(UserActivityAudit.builder()
-                .id(UUID.randomUUID())
                 .userId(UUID.fromString(userId))
                 .email(null) // opsional, bisa ambil dari user repo
                 .activityType("LOGOUT")
@@ -272,11 +362,12 @@ public class AuthService {
             User user = (User) userOpt.get();
             userId = user.getId();
 
-            String token = UUID.randomUUID().toString();
+            Instant expiresAt = Instant.now().plusSeconds(3600).truncatedTo(ChronoUnit.SECONDS);
+            String token = tokenGuard.issue(TokenType.PASSWORD_RESET, expiresAt);
             PasswordResetToken resetToken = PasswordResetToken.builder()
                     .user(user)
-                    .token(token)
-                    .expiresAt(Instant.now().plusSeconds(3600))
+                    .tokenHash(TokenUtil.sha256(token))
+                    .expiresAt(expiresAt)
                     .used(false)
                     .build();
 
@@ -285,7 +376,6 @@ public class AuthService {
             success = true;
         } finally {
             auditRepository.save(UserActivityAudit.builder()
-                    .id(UUID.randomUUID())
                     .userId(userId)
                     .email(email)
                     .activityType("FORGOT PASSWORD")
@@ -297,39 +387,57 @@ public class AuthService {
     }
 
     public void resetPassword(ResetPasswordRequest request, HttpServletRequest http) {
+        // Token acak / palsu / expired ditolak tanpa query DB maupun audit (tercatat di metric library.token.precheck)
+        if (!tokenGuard.admit(TokenType.PASSWORD_RESET, request.token())) {
+            String message = messageCatalog.get(MessageKey.RESET_PASSWORD_TOKEN_NOT_FOUND);
+            throw new IllegalArgumentException(message);
+        }
+
         String email = null;
         boolean success = false;
         UUID userId = null;
         try{
-            Optional<PasswordResetToken> tokenOpt = passwordResetTokenRepository.findByToken(request.token());
-            if (tokenOpt.isEmpty()) {
-                String message = messageSource.getMessage("resetPassword.token.notFound", null, LocaleContextHolder.getLocale());
-                throw new IllegalArgumentException(message);
-            }
-
-            PasswordResetToken resetToken = tokenOpt.get();
-            if (resetToken.isUsed() || resetToken.getExpiresAt().isBefore(Instant.now())) {
-                String message = messageSource.getMessage("resetPassword.token.invalid", null, LocaleContextHolder.getLocale());
-                throw new IllegalArgumentException(message);
+            // Token dicek dulu ke DB (primary, token baru dibuat), BCrypt hanya untuk token yang memang valid
+            byte[] tokenHash = TokenUtil.sha256(request.token());
+            PasswordResetToken found = ReadReplicaRouting.onPrimary(() ->
+                    passwordResetTokenRepository.findByTokenHash(tokenHash)).orElseThrow(() ->
+                    new IllegalArgumentException(messageCatalog.get(MessageKey.RESET_PASSWORD_TOKEN_NOT_FOUND)));
+            if (!found.isUsable(Instant.now())) {
+                // Di luar transaksi: langsung diingat, replay berikutnya ditolak tanpa query DB
+                tokenGuard.consumed(request.token(), found.getExpiresAt());
+                throw new IllegalArgumentException(messageCatalog.get(MessageKey.RESET_PASSWORD_TOKEN_INVALID));
             }
 
-            User user = resetToken.getUser();
-            email = user.getEmail();
-            userId = user.getId();
+            // BCrypt di luar transaksi, tidak memegang koneksi DB
             String salt = BCrypt.gensalt();
             String hashedPassword = BCrypt.hashpw(request.newPassword(), salt);
-            user.setPassword(hashedPassword);
-            userRepository.save(user);
 
-            resetToken.setUsed(true);
-            passwordResetTokenRepository.save(resetToken);
-            // Hapus semua session atas user terkait
+            User user = transactionTemplate.execute(status -> {
+                PasswordResetToken resetToken = passwordResetTokenRepository.findByTokenHash(tokenHash)
+                        .filter(token -> token.isUsable(Instant.now()))
+                        // Dipakai request lain selama BCrypt berjalan
+                        .orElseThrow(() -> new IllegalArgumentException(
+                                messageCatalog.get(MessageKey.RESET_PASSWORD_TOKEN_INVALID)));
+
+                User owner = resetToken.getUser();
+                owner.setPassword(hashedPassword);
+                userRepository.save(owner);
+
+                resetToken.setUsed(true);
+                passwordResetTokenRepository.save(resetToken);
+                tokenGuard.consumed(request.token(), resetToken.getExpiresAt());
+                return owner;
+            });
+            email = user.getEmail();
+            userId = user.getId();
+            // Hapus semua session & refresh token atas user terkait
             redisSessionService.invalidateAllSessionUser(user.getId());
+            refreshTokenService.revokeAll(user.getId());
+            success = true;
 
             log.info("🔑 Password berhasil direset untuk user {}", user.getEmail());
         } finally {
             auditRepository.save(UserActivityAudit.builder()
-                    .id(UUID.randomUUID())
                     .userId(userId)
                     .email(email)
                     .activityType("RESET PASSWORD")
@@ -1,12 +1,13 @@
 package com.ansy.library.service;
 
+import com.ansy.library.config.MessageCatalog;
+import com.ansy.library.config.MessageKey;
 import com.ansy.library.dto.BookDto;
 import com.ansy.library.entity.Book;
 import com.ansy.library.repository.BookRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.MessageSource;
-import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
@@ -17,8 +18,9 @@ import java.util.stream.Collectors;
 public class BookService {
 
     private final BookRepository bookRepository;
-    private final MessageSource messageSource;
+    private final MessageCatalog messageCatalog;
 
+    @Transactional(readOnly = true)
     public List<BookDto> getAvailableBooks() {
         return bookRepository.findByAvailableTrue().stream()
                 .map(book -> BookDto.builder()
@@ -29,10 +31,11 @@ public class BookService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public BookDto getBookById(UUID id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException(
-                        messageSource.getMessage("book.notFound", null, LocaleContextHolder.getLocale())
+                        messageCatalog.get(MessageKey.BOOK_NOT_FOUND)
                 ));
         return BookDto.builder()
                 .id(book.getId())
@@ -0,0 +1,153 @@
+package com.ansy.library.service;
+
+import com.ansy.library.config.AppMetrics.RedisCommand;
+import com.ansy.library.config.AppProperties;
+import com.ansy.library.config.ReadReplicaRouting;
+import com.ansy.library.config.RedisCircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Versi katalog buku untuk ETag & Last-Modified di /books, 304 diputuskan tanpa query buku.
+ * - 1 key Redis BOOK_CATALOG:VERSION = "{versi}:{epoch ms perubahan terakhir}", dibaca 1 GET per request
+ * - Dinaikkan setelah commit setiap mutasi buku (rent, return, seed); waktu perubahan naik min. 1 detik per versi
+ *   supaya If-Modified-Since (resolusi detik) juga tidak pernah salah 304
+ * - Bump gagal (Redis down) = ditandai pending & diulang, selama itu response tanpa ETag (selalu 200)
+ */
+@Slf4j
+@Service
+public class CatalogVersionService {
+
+    static final String KEY = "BOOK_CATALOG:VERSION";
+
+    // KEYS: 1 = versi katalog
+    // ARGV: 1 = waktu sekarang (epoch ms)
+    // Return: nilai baru "{versi}:{epoch ms}"
+    private static final DefaultRedisScript<String> BUMP_SCRIPT = new DefaultRedisScript<>("""
+            local version, modified = 1, tonumber(ARGV[1])
+            local current = redis.call('GET', KEYS[1])
+            if current then
+                local v, m = string.match(current, '^(%d+):(%d+)$')
+                if v then
+                    version = tonumber(v) + 1
+                    modified = math.max(modified, tonumber(m) + 1000)
+                end
+            end
+            local value = string.format('%d:%d', version, modified)
+            redis.call('SET', KEYS[1], value)
+            return value
+            """, String.class);
+
+    private static final String UNAVAILABLE = "";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final AppProperties.ReadReplica replica;
+
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    public record CatalogVersion(long version, long modifiedMillis) {
+
+        /**
+         * Weak ETag: body envelope (responseId, timestamp) berbeda tiap response walau data sama.
+         * Bahasa ikut di ETag karena pesan response dilokalisasi.
+         */
+        public String etag(String language) {
+            return "W/\"" + version + "-" + Long.toString(modifiedMillis, 36) + "-" + language + "\"";
+        }
+    }
+
+    public CatalogVersionService(StringRedisTemplate redisTemplate, RedisCircuitBreaker circuitBreaker,
+                                 AppProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.replica = properties.getReadReplica();
+    }
+
+    /**
+     * @return null = versi tidak diketahui (Redis gagal / bump tertunda), jangan pakai ETag
+     */
+    public CatalogVersion current() {
+        if (pending.get() && increment() == null) {
+            return null;
+        }
+        String value = circuitBreaker.call(RedisCommand.CATALOG_VERSION_GET,
+                () -> redisTemplate.opsForValue().get(KEY), () -> UNAVAILABLE);
+        if (value == null) {
+            // Key belum ada (Redis baru / di-flush): mulai dari versi baru, ETag lama pasti tidak cocok
+            value = increment();
+        }
+        return parse(value);
+    }
+
+    /**
+     * Di dalam transaksi baru dijalankan setelah commit, supaya ETag baru tidak pernah menunjuk data lama.
+     */
+    public void bump() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment();
+            }
+        });
+    }
+
+    /**
+     * Data katalog yang akan di-tag dengan versi ini. Perubahan yang lebih baru dari max-lag replica dibaca dari
+     * primary, supaya data lama dari replica tidak tersimpan di client dengan ETag baru.
+     */
+    public <T> T read(CatalogVersion version, Supplier<T> loader) {
+        if (version != null && replica.isEnabled()
+                && System.currentTimeMillis() - version.modifiedMillis() < replica.getMaxLag().toMillis()) {
+            return ReadReplicaRouting.onPrimary(loader);
+        }
+        return loader.get();
+    }
+
+    @Scheduled(fixedDelay = 5_000)
+    public void retryPending() {
+        // Pod lain tetap membaca versi lama dari Redis sampai bump yang tertunda di pod ini berhasil
+        if (pending.get()) {
+            increment();
+        }
+    }
+
+    private String increment() {
+        String value = circuitBreaker.call(RedisCommand.CATALOG_VERSION_BUMP, () -> redisTemplate.execute(BUMP_SCRIPT,
+                List.of(KEY), String.valueOf(System.currentTimeMillis())), () -> null);
+        if (value == null) {
+            if (!pending.getAndSet(true)) {
+                log.warn("⚠️ Versi katalog buku gagal dinaikkan, ETag dimatikan sampai Redis pulih");
+            }
+            return null;
+        }
+        pending.set(false);
+        return value;
+    }
+
+    static CatalogVersion parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        int separator = value.indexOf(':');
+        try {
+            return new CatalogVersion(Long.parseLong(value, 0, separator, 10),
+                    Long.parseLong(value, separator + 1, value.length(), 10));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+}
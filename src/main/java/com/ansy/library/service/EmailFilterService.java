@@ -0,0 +1,239 @@
+package com.ansy.library.service;
+
+import com.ansy.library.config.AppMetrics;
+import com.ansy.library.config.AppMetrics.EmailFilterResult;
+import com.ansy.library.config.AppMetrics.RedisCommand;
+import com.ansy.library.config.AppProperties;
+import com.ansy.library.config.RedisCircuitBreaker;
+import com.ansy.library.utils.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Bloom filter email terdaftar, supaya register email baru (mayoritas, termasuk bot) tidak perlu query DB.
+ * - "Pasti belum ada" = skip existsByEmail, UNIQUE constraint di DB tetap jadi penentu akhir
+ * - Dibangun dari tabel users saat startup & tiap malam, ditambah setiap register berhasil
+ * - Mode shared (app.email-filter.shared): filter disimpan sebagai bitmap Redis, dipakai semua pod,
+ *   rebuild hanya oleh 1 pod (distributed lock). Mode lokal: tiap pod punya filter sendiri
+ * - Filter belum siap / Redis tidak tersedia = selalu cek DB
+ */
+@Slf4j
+@Service
+public class EmailFilterService {
+
+    private static final String REBUILD_LOCK = "EMAIL_FILTER_REBUILD";
+    private static final int FETCH_SIZE = 10_000;
+
+    // KEYS: 1 = bitmap; ARGV = offset bit
+    // Return: 1 = mungkin ada, 0 = pasti tidak ada, -1 = bitmap belum dibangun
+    private static final DefaultRedisScript<Long> CHECK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end
+            for i = 1, #ARGV do
+                if redis.call('GETBIT', KEYS[1], ARGV[i]) == 0 then return 0 end
+            end
+            return 1
+            """, Long.class);
+
+    // Bitmap yang belum dibangun tidak dibuat sebagian (akan dibangun penuh oleh rebuild)
+    private static final DefaultRedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end
+            for i = 1, #ARGV do
+                redis.call('SETBIT', KEYS[1], ARGV[i], 1)
+            end
+            return 1
+            """, Long.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final RedisLockService lockService;
+    private final AppMetrics metrics;
+    private final AppProperties.EmailFilter config;
+
+    private volatile BloomFilter filter;
+    // Filter yang sedang dibangun ikut menerima email baru supaya tidak hilang saat ditukar
+    private volatile BloomFilter building;
+
+    public EmailFilterService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                              StringRedisTemplate redisTemplate, RedisCircuitBreaker circuitBreaker,
+                              RedisLockService lockService, AppMetrics metrics, AppProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        // Streaming ResultSet PostgreSQL hanya jalan dengan autocommit off
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.lockService = lockService;
+        this.metrics = metrics;
+        this.config = properties.getEmailFilter();
+    }
+
+    /**
+     * @param database cek ke DB, hanya dipanggil jika filter tidak bisa memastikan email belum terdaftar
+     */
+    public boolean exists(String email, BooleanSupplier database) {
+        EmailFilterResult result = check(normalize(email));
+        if (result == EmailFilterResult.ABSENT) {
+            metrics.emailFilter(result);
+            return false;
+        }
+
+        boolean exists = database.getAsBoolean();
+        if (result == EmailFilterResult.PRESENT && !exists) {
+            result = EmailFilterResult.FALSE_POSITIVE;
+        }
+        metrics.emailFilter(result);
+        return exists;
+    }
+
+    public void add(String email) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        String normalized = normalize(email);
+        BloomFilter pending = building;
+        if (pending != null) {
+            pending.add(normalized);
+        }
+
+        BloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        if (config.isShared()) {
+            List<String> keys = List.of(bitmapKey(current));
+            circuitBreaker.call(RedisCommand.EMAIL_FILTER_ADD,
+                    () -> redisTemplate.execute(ADD_SCRIPT, keys, offsets(current, normalized)), () -> 0L);
+        } else {
+            current.add(normalized);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Tanpa filter register tetap jalan (selalu cek DB), dicoba lagi oleh rebuild terjadwal
+            log.warn("⚠️ Gagal membangun email bloom filter saat startup: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "0 30 3 * * *") // Setiap jam 03:30
+    public void rebuild() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (!config.isShared()) {
+            long users = jdbcTemplate.queryForObject("SELECT count(*) FROM users", Long.class);
+            // Ruang tumbuh 2x supaya false positive rate tetap di target sampai rebuild berikutnya
+            filter = build(new BloomFilter(Math.max(config.getExpectedInsertions(), users * 2),
+                    config.getFalsePositiveRate()));
+            return;
+        }
+
+        // Ukuran mode shared tetap dari konfigurasi: semua pod harus menghitung offset bit yang sama
+        BloomFilter shared = new BloomFilter(config.getExpectedInsertions(), config.getFalsePositiveRate());
+        String owner = lockService.tryAcquire(REBUILD_LOCK, Duration.ofMinutes(10));
+        if (owner == null) {
+            // Pod lain yang membangun bitmap, pod ini cukup memakai key yang sama
+            filter = shared;
+            return;
+        }
+        try {
+            build(shared);
+            byte[] key = bitmapKey(shared).getBytes(StandardCharsets.UTF_8);
+            byte[] tmpKey = (bitmapKey(shared) + ":TMP").getBytes(StandardCharsets.UTF_8);
+            byte[] bitmap = shared.toRedisBitmap();
+            circuitBreaker.run(RedisCommand.EMAIL_FILTER_REBUILD,
+                    () -> redisTemplate.execute((RedisCallback<Void>) connection -> swap(connection, tmpKey, key, bitmap)));
+            filter = shared;
+            if (shared.insertions() > config.getExpectedInsertions()) {
+                log.warn("⚠️ Jumlah email ({}) melebihi app.email-filter.expected-insertions ({}), false positive rate naik ke {}",
+                        shared.insertions(), config.getExpectedInsertions(), shared.expectedFalsePositiveRate());
+            }
+        } finally {
+            lockService.release(REBUILD_LOCK, owner);
+        }
+    }
+
+    private BloomFilter build(BloomFilter target) {
+        long start = System.nanoTime();
+        building = target;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query("SELECT email FROM users",
+                    (RowCallbackHandler) rs -> target.add(normalize(rs.getString(1)))));
+        } finally {
+            building = null;
+        }
+
+        metrics.emailFilterBuilt(target);
+        log.info("📧 Email bloom filter dibangun: {} email, {} KB, {} hash, perkiraan false positive {} ({} ms)",
+                target.insertions(), target.sizeInBytes() / 1024, target.hashCount(),
+                String.format(Locale.ROOT, "%.4f", target.expectedFalsePositiveRate()),
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return target;
+    }
+
+    private EmailFilterResult check(String email) {
+        BloomFilter current = filter;
+        if (!config.isEnabled() || current == null) {
+            return EmailFilterResult.UNAVAILABLE;
+        }
+        if (!config.isShared()) {
+            return current.mightContain(email) ? EmailFilterResult.PRESENT : EmailFilterResult.ABSENT;
+        }
+
+        List<String> keys = List.of(bitmapKey(current));
+        Long found = circuitBreaker.call(RedisCommand.EMAIL_FILTER_CHECK,
+                () -> redisTemplate.execute(CHECK_SCRIPT, keys, offsets(current, email)), () -> -1L);
+        if (found == null || found < 0) {
+            return EmailFilterResult.UNAVAILABLE;
+        }
+        return found == 1 ? EmailFilterResult.PRESENT : EmailFilterResult.ABSENT;
+    }
+
+    private static Void swap(RedisConnection connection, byte[] tmpKey, byte[] key, byte[] bitmap) {
+        connection.stringCommands().set(tmpKey, bitmap);
+        connection.keyCommands().rename(tmpKey, key);
+        return null;
+    }
+
+    private static Object[] offsets(BloomFilter filter, String email) {
+        long[] offsets = filter.bitOffsets(email);
+        Object[] args = new Object[offsets.length];
+        for (int i = 0; i < offsets.length; i++) {
+            args[i] = Long.toString(offsets[i]);
+        }
+        return args;
+    }
+
+    // Ukuran ada di nama key: perubahan konfigurasi otomatis memakai bitmap baru
+    private static String bitmapKey(BloomFilter filter) {
+        return "EMAIL_BLOOM:" + filter.bitSize() + ":" + filter.hashCount();
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
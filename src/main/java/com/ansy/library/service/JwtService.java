@@ -1,14 +1,22 @@
 package com.ansy.library.service;
 
 import com.ansy.library.config.AppProperties;
+import com.ansy.library.security.AccessTokenClaims;
+import com.ansy.library.security.FastJwtVerifier;
+import com.ansy.library.security.JwtKeyManager;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
 import java.security.Key;
 import java.time.Instant;
 import java.util.Date;
@@ -18,12 +26,28 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class JwtService {
     private final AppProperties properties;
+    private final JwtKeyManager keyManager;
 
-    private Key key;
+    private SecretKey legacyKey;
+    private JwtParser parser;
+    private FastJwtVerifier fastVerifier;
 
     @PostConstruct
     public void init() {
-        this.key = Keys.hmacShaKeyFor(properties.getJwtSecret().getBytes());
+        // Token HS256 lama masih diterima selama app.jwt-secret diisi (masa transisi)
+        String secret = properties.getJwtSecret();
+        this.legacyKey = secret == null || secret.isBlank() ? null : Keys.hmacShaKeyFor(secret.getBytes());
+
+        // Parser immutable & thread-safe, cukup dibuat sekali
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveKey(header);
+                    }
+                })
+                .build();
+        this.fastVerifier = new FastJwtVerifier(keyManager::verificationKey, legacyKey);
     }
 
     public long getExpiration() {
@@ -31,21 +55,59 @@ public class JwtService {
     }
 
     public String generateToken(UUID userId, String role, String sessionId, Instant issuedAt, Instant expiredAt) {
+        return generateToken(userId, role, sessionId, null, issuedAt, expiredAt);
+    }
+
+    /**
+     * @param locale bahasa user (claim "locale"), dipakai StatelessLocaleResolver; null = tanpa claim
+     */
+    public String generateToken(UUID userId, String role, String sessionId, String locale,
+                                Instant issuedAt, Instant expiredAt) {
+        JwtKeyManager.SigningKey signingKey = keyManager.currentKey();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.kid())
                 .claim("uid", userId.toString())
                 .claim("role", role)
                 .claim("sid", sessionId)
+                .claim("locale", locale)
                 .setIssuedAt(Date.from(issuedAt))
                 .setExpiration(Date.from(expiredAt))
-                .signWith(key, SignatureAlgorithm.HS256)
+                .signWith(signingKey.privateKey(), SignatureAlgorithm.ES256)
                 .compact();
     }
 
     public Claims parseToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Versi cepat untuk request path: hanya uid, role, sid.
+     * Token yang formatnya tidak persis seperti yang kita terbitkan di-parse ulang lewat jjwt.
+     */
+    public AccessTokenClaims parseAccessToken(String token) {
+        AccessTokenClaims fast = fastVerifier.verify(token, System.currentTimeMillis());
+        if (fast != null) {
+            return fast;
+        }
+
+        Claims claims = parseToken(token);
+        return new AccessTokenClaims(
+                UUID.fromString(claims.get("uid", String.class)),
+                claims.get("role", String.class),
+                claims.get("sid", String.class),
+                claims.get("locale", String.class)
+        );
+    }
+
+    private Key resolveKey(JwsHeader<?> header) {
+        if (SignatureAlgorithm.HS256.getValue().equals(header.getAlgorithm()) && legacyKey != null) {
+            return legacyKey;
+        }
+
+        Key key = header.getKeyId() != null ? keyManager.verificationKey(header.getKeyId()) : null;
+        if (key == null) {
+            throw new SignatureException("Unknown JWT key id: " + header.getKeyId());
+        }
+        return key;
     }
 }
@@ -1,6 +1,9 @@
 package com.ansy.library.service;
 
+import com.ansy.library.config.AppMetrics;
+import com.ansy.library.config.AppMetrics.MailType;
 import com.ansy.library.config.AppProperties;
+import com.ansy.library.config.AppTracing;
 import lombok.RequiredArgsConstructor;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -12,6 +15,8 @@ public class MailService {
 
     private final JavaMailSender mailSender;
     private final AppProperties properties;
+    private final AppMetrics metrics;
+    private final AppTracing tracing;
 
     public void sendVerificationEmail(String to, String token) {
         SimpleMailMessage message = new SimpleMailMessage();
@@ -20,7 +25,7 @@ public class MailService {
         message.setSubject("Verifikasi Email Anda");
         message.setText("Klik link berikut untuk verifikasi: " + properties.getVerificationUrl() + "?token=" + token);
 
-        mailSender.send(message);
+        send(MailType.VERIFICATION, message);
     }
 
     public void sendForgotPasswordEmail(String to, String token) {
@@ -30,6 +35,20 @@ public class MailService {
         message.setSubject("Link Reset Password Anda");
         message.setText("Klik link berikut untuk reset password: " + properties.getForgotPasswordUrl() + "?token=" + token);
 
-        mailSender.send(message);
+        send(MailType.FORGOT_PASSWORD, message);
+    }
+
+    private void send(MailType type, SimpleMailMessage message) {
+        long start = System.nanoTime();
+        try {
+            tracing.inSpan("mail.send", () -> {
+                tracing.tag("mail.type", type.name().toLowerCase());
+                mailSender.send(message);
+            });
+            metrics.mail(type, AppMetrics.Outcome.SUCCESS, start);
+        } catch (RuntimeException e) {
+            metrics.mail(type, AppMetrics.Outcome.ERROR, start);
+            throw e;
+        }
     }
 }
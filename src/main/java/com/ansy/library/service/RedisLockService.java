@@ -0,0 +1,57 @@
+package com.ansy.library.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Distributed lock sederhana di Redis (SET NX PX) supaya job terjadwal hanya jalan di 1 pod.
+ */
+@Service
+@RequiredArgsConstructor
+public class RedisLockService {
+
+    // Hanya hapus lock jika masih dimiliki oleh pemanggil (owner token sama)
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class
+    );
+
+    // Perpanjang TTL hanya jika lock masih dimiliki pemanggil
+    private static final DefaultRedisScript<Long> EXTEND_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class
+    );
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * @return owner token jika lock didapat, null jika lock sedang dipegang node lain
+     */
+    public String tryAcquire(String name, Duration ttl) {
+        String owner = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(lockKey(name), owner, ttl);
+        return Boolean.TRUE.equals(acquired) ? owner : null;
+    }
+
+    /**
+     * @return false jika lock sudah expired / diambil node lain
+     */
+    public boolean extend(String name, String owner, Duration ttl) {
+        Long extended = redisTemplate.execute(EXTEND_SCRIPT, List.of(lockKey(name)), owner, String.valueOf(ttl.toMillis()));
+        return Long.valueOf(1).equals(extended);
+    }
+
+    public void release(String name, String owner) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(lockKey(name)), owner);
+    }
+
+    private String lockKey(String name) {
+        return "LOCK:" + name;
+    }
+}
@@ -1,42 +1,91 @@
 package com.ansy.library.service;
 
+import com.ansy.library.config.AppMetrics.RedisCommand;
+import com.ansy.library.config.AppProperties;
+import com.ansy.library.config.RedisCircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Session JWT di Redis. Saat Redis tidak tersedia (circuit open) cek session memakai
+ * app.redis-resilience.session-fallback. Untuk TRUST_JWT, setiap revoke juga dicatat di deny-list lokal
+ * (per pod, selama umur maksimal JWT) supaya session yang baru logout / reset password tetap ditolak.
+ */
 @Service
 @RequiredArgsConstructor
 public class RedisSessionService {
 
     private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final AppProperties properties;
+
+    // key session / userId -> epoch millis kapan entry boleh dibuang
+    private final Map<String, Long> revokedSessions = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> revokedUsers = new ConcurrentHashMap<>();
 
     public void storeSession(UUID userId, String sessionId, Instant expiredAt) {
-        String key = "SESSION:" + userId + ":" + sessionId;
+        String key = sessionKey(userId, sessionId);
         Duration ttl = Duration.between(Instant.now(), expiredAt);
-        redisTemplate.opsForValue().set(key, "active", ttl);
+        circuitBreaker.run(RedisCommand.SESSION_STORE, () -> redisTemplate.opsForValue().set(key, "active", ttl));
     }
 
     public void invalidateSession(UUID userId, String sessionId) {
-        String key = "SESSION:" + userId + ":" + sessionId;
-        redisTemplate.delete(key);
+        String key = sessionKey(userId, sessionId);
+        revokedSessions.put(key, denyUntil());
+        circuitBreaker.run(RedisCommand.SESSION_INVALIDATE, () -> redisTemplate.delete(key));
     }
 
     public void invalidateAllSessionUser(UUID userId) {
+        revokedUsers.put(userId, denyUntil());
         // Hapus semua sesi aktif user dari Redis
         String sessionPattern = "SESSION:" + userId + ":*";
-        Set<String> keys = redisTemplate.keys(sessionPattern);
-        if (!keys.isEmpty()) {
-            redisTemplate.delete(keys);
-        }
+        circuitBreaker.run(RedisCommand.SESSION_INVALIDATE_ALL, () -> {
+            Set<String> keys = redisTemplate.keys(sessionPattern);
+            if (!keys.isEmpty()) {
+                redisTemplate.delete(keys);
+            }
+        });
     }
 
     public boolean sessionExists(UUID userId, String sessionId) {
-        String key = "SESSION:" + userId + ":" + sessionId;
-        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+        String key = sessionKey(userId, sessionId);
+        return circuitBreaker.call(RedisCommand.SESSION_EXISTS,
+                () -> Boolean.TRUE.equals(redisTemplate.hasKey(key)),
+                () -> fallbackSessionExists(userId, key));
+    }
+
+    /**
+     * Entry deny-list yang sudah lewat umur maksimal JWT dibuang (token-nya sudah expired).
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void pruneRevoked() {
+        long now = System.currentTimeMillis();
+        revokedSessions.values().removeIf(until -> until < now);
+        revokedUsers.values().removeIf(until -> until < now);
+    }
+
+    private boolean fallbackSessionExists(UUID userId, String key) {
+        if (properties.getRedisResilience().getSessionFallback() != AppProperties.SessionFallback.TRUST_JWT) {
+            return false;
+        }
+        // Signature & exp sudah diverifikasi filter sebelum cek session
+        return !revokedSessions.containsKey(key) && !revokedUsers.containsKey(userId);
+    }
+
+    private long denyUntil() {
+        return System.currentTimeMillis() + properties.getJwtExpiration() * 1000;
+    }
+
+    static String sessionKey(UUID userId, String sessionId) {
+        return "SESSION:" + userId + ":" + sessionId;
     }
 }
@@ -0,0 +1,201 @@
+package com.ansy.library.service;
+
+import com.ansy.library.config.AppMetrics.RedisCommand;
+import com.ansy.library.config.AppMetrics.TokenType;
+import com.ansy.library.config.RedisCircuitBreaker;
+import com.ansy.library.security.TokenGuard;
+import com.ansy.library.utils.TokenUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Refresh token disimpan di Redis (bukan Postgres), key = SHA-256 dari token.
+ * Format token: {userId}.{familyId}.{secret}, secret di-HMAC bersama userId.familyId oleh {@link TokenGuard}
+ * sehingga token palsu/expired ditolak tanpa round trip Redis.
+ * <p>
+ * Setiap login membuat 1 "family". Setiap refresh merotasi token dalam family yang sama,
+ * token lama ditandai "used". Jika token yang sudah used dipakai lagi (reuse / token dicuri),
+ * seluruh family dicabut sehingga token terbaru pun tidak bisa dipakai.
+ * Login (simpan session + buat family + reset counter gagal login) dan rotasi (rotasi + simpan session baru +
+ * hapus session lama) masing-masing dijalankan dalam 1 Lua script (1 round trip, atomic).
+ * <p>
+ * Family menyimpan generasi user (REFRESH_GEN:{userId}) saat login. {@link #revokeAll} menaikkan generasi
+ * (reset password, ganti role), semua family dengan generasi lama dicabut saat rotasi berikutnya.
+ * Role tidak disimpan di family, dibaca ulang dari DB setiap refresh.
+ */
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    public static final Duration REFRESH_TTL = Duration.ofDays(7);
+
+    // KEYS: 1 = token, 2 = family, 3 = session, 4 = counter gagal login, 5 = generasi user
+    // ARGV: 1 = userId, 2 = ttl refresh (detik), 3 = ttl session (detik)
+    private static final DefaultRedisScript<Long> LOGIN_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('SET', KEYS[3], 'active', 'EX', ARGV[3])
+            redis.call('SET', KEYS[1], 'active', 'EX', ARGV[2])
+            local gen = redis.call('GET', KEYS[5]) or '0'
+            redis.call('HSET', KEYS[2], 'uid', ARGV[1], 'gen', gen, 'status', 'active')
+            redis.call('EXPIRE', KEYS[2], ARGV[2])
+            -- Generasi hidup minimal selama family terakhir user
+            if gen ~= '0' then redis.call('EXPIRE', KEYS[5], ARGV[2]) end
+            redis.call('DEL', KEYS[4])
+            return 1
+            """, Long.class);
+
+    // KEYS: 1 = token lama, 2 = family, 3 = token baru, 4 = session baru, 5 = generasi user,
+    //       6 = session lama (opsional)
+    // ARGV: 1 = userId dari token, 2 = ttl refresh (detik), 3 = ttl session (detik)
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> ROTATE_SCRIPT = new DefaultRedisScript<>("""
+            local state = redis.call('GET', KEYS[1])
+            if not state then return {'INVALID'} end
+            local fam = redis.call('HMGET', KEYS[2], 'uid', 'gen', 'status')
+            if not fam[1] or fam[1] ~= ARGV[1] then return {'INVALID'} end
+            if fam[3] == 'revoked' then return {'REVOKED'} end
+            local gen = redis.call('GET', KEYS[5]) or '0'
+            if (fam[2] or '0') ~= gen then
+                redis.call('HSET', KEYS[2], 'status', 'revoked')
+                return {'REVOKED'}
+            end
+            if state ~= 'active' then
+                redis.call('HSET', KEYS[2], 'status', 'revoked')
+                return {'REUSED'}
+            end
+            redis.call('SET', KEYS[1], 'used', 'EX', ARGV[2])
+            redis.call('SET', KEYS[3], 'active', 'EX', ARGV[2])
+            redis.call('EXPIRE', KEYS[2], ARGV[2])
+            if gen ~= '0' then redis.call('EXPIRE', KEYS[5], ARGV[2]) end
+            redis.call('SET', KEYS[4], 'active', 'EX', ARGV[3])
+            if #KEYS >= 6 then redis.call('DEL', KEYS[6]) end
+            return {'OK'}
+            """, List.class);
+
+    // KEYS: 1 = generasi user
+    // ARGV: 1 = ttl refresh (detik)
+    private static final DefaultRedisScript<Long> REVOKE_ALL_SCRIPT = new DefaultRedisScript<>("""
+            local gen = redis.call('INCR', KEYS[1])
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            return gen
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final TokenGuard tokenGuard;
+
+    public enum Status {
+        OK,
+        INVALID,
+        REUSED,
+        REVOKED
+    }
+
+    public record Rotation(Status status, UUID userId, String refreshToken) {
+    }
+
+    /**
+     * Semua write Redis saat login berhasil dalam 1 round trip: simpan session JWT,
+     * buat refresh token (family baru), dan hapus counter gagal login.
+     *
+     * @param rateLimitKey key counter gagal login dari {@link com.ansy.library.security.RedisRateLimiter}
+     * @return refresh token baru
+     */
+    public String issueOnLogin(UUID userId, String sessionId, Instant sessionExpiredAt, String rateLimitKey) {
+        UUID familyId = UUID.randomUUID();
+        String token = newToken(userId, familyId);
+        List<String> keys = List.of(
+                tokenKey(token),
+                familyKey(familyId),
+                RedisSessionService.sessionKey(userId, sessionId),
+                rateLimitKey,
+                generationKey(userId));
+
+        long sessionTtl = Math.max(1, Duration.between(Instant.now(), sessionExpiredAt).toSeconds());
+        circuitBreaker.call(RedisCommand.LOGIN_COMMIT, () -> redisTemplate.execute(LOGIN_SCRIPT, keys,
+                userId.toString(), String.valueOf(REFRESH_TTL.toSeconds()), String.valueOf(sessionTtl)));
+        return token;
+    }
+
+    /**
+     * Rotasi refresh token, sekaligus simpan session JWT baru dan hapus session lama.
+     *
+     * @param oldUserId    uid dari JWT lama (boleh null)
+     * @param oldSessionId sid dari JWT lama (boleh null)
+     */
+    public Rotation rotate(String token, String newSessionId, Instant sessionExpiredAt,
+                           UUID oldUserId, String oldSessionId) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            return new Rotation(Status.INVALID, null, null);
+        }
+
+        if (!tokenGuard.admit(TokenType.REFRESH, parts[2], parts[0] + "." + parts[1])) {
+            return new Rotation(Status.INVALID, null, null);
+        }
+
+        UUID userId;
+        UUID familyId;
+        try {
+            userId = UUID.fromString(parts[0]);
+            familyId = UUID.fromString(parts[1]);
+        } catch (IllegalArgumentException e) {
+            return new Rotation(Status.INVALID, null, null);
+        }
+
+        String newToken = newToken(userId, familyId);
+        List<String> keys = new ArrayList<>(6);
+        keys.add(tokenKey(token));
+        keys.add(familyKey(familyId));
+        keys.add(tokenKey(newToken));
+        keys.add(RedisSessionService.sessionKey(userId, newSessionId));
+        keys.add(generationKey(userId));
+        // Session lama hanya dihapus jika milik user yang sama
+        if (oldSessionId != null && userId.equals(oldUserId)) {
+            keys.add(RedisSessionService.sessionKey(userId, oldSessionId));
+        }
+
+        long sessionTtl = Math.max(1, Duration.between(Instant.now(), sessionExpiredAt).toSeconds());
+        List<?> result = circuitBreaker.call(RedisCommand.REFRESH_ROTATE, () -> redisTemplate.execute(ROTATE_SCRIPT, keys,
+                userId.toString(), String.valueOf(REFRESH_TTL.toSeconds()), String.valueOf(sessionTtl)));
+
+        Status status = Status.valueOf((String) result.get(0));
+        return new Rotation(status, userId, status == Status.OK ? newToken : null);
+    }
+
+    /**
+     * Cabut semua family user (reset password, ganti role), token yang sedang dipegang ditolak saat rotasi berikutnya.
+     * Redis down = {@link com.ansy.library.exception.RedisUnavailableException}, sama seperti hapus session.
+     */
+    public void revokeAll(UUID userId) {
+        circuitBreaker.call(RedisCommand.REFRESH_REVOKE_ALL, () -> redisTemplate.execute(REVOKE_ALL_SCRIPT,
+                List.of(generationKey(userId)), String.valueOf(REFRESH_TTL.toSeconds())));
+    }
+
+    private String newToken(UUID userId, UUID familyId) {
+        String prefix = userId + "." + familyId;
+        Instant expiresAt = Instant.now().plus(REFRESH_TTL).truncatedTo(ChronoUnit.SECONDS);
+        return prefix + "." + tokenGuard.issue(TokenType.REFRESH, expiresAt, prefix);
+    }
+
+    private String tokenKey(String token) {
+        return "REFRESH:" + HexFormat.of().formatHex(TokenUtil.sha256(token));
+    }
+
+    private String familyKey(UUID familyId) {
+        return "REFRESH_FAMILY:" + familyId;
+    }
+
+    private String generationKey(UUID userId) {
+        return "REFRESH_GEN:" + userId;
+    }
+}
@@ -1,5 +1,9 @@
 package com.ansy.library.service;
 
+import com.ansy.library.config.AppMetrics;
+import com.ansy.library.config.MessageCatalog;
+import com.ansy.library.config.MessageKey;
+import com.ansy.library.config.ReadReplicaRouting;
 import com.ansy.library.dto.AdminRentViewResponse;
 import com.ansy.library.dto.RentRequest;
 import com.ansy.library.dto.RentResponse;
@@ -10,8 +14,6 @@ import com.ansy.library.repository.BookRepository;
 import com.ansy.library.repository.RentRepository;
 import com.ansy.library.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.MessageSource;
-import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,33 +33,51 @@ public class RentService {
     private final RentRepository rentRepository;
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
-    private final MessageSource messageSource;
+    private final MessageCatalog messageCatalog;
+    private final AppMetrics metrics;
+    private final ReadReplicaRouting replicaRouting;
+    private final CatalogVersionService catalogVersion;
 
     @Transactional
     public RentResponse rentBook(UUID userId, RentRequest request) {
+        long start = System.nanoTime();
+        try {
+            RentResponse response = doRentBook(userId, request);
+            // Katalog yang dibuka user ini berikutnya dibaca dari primary (ketersediaan buku sudah berubah)
+            replicaRouting.recordWrite(userId);
+            metrics.rentCheckout(AppMetrics.Outcome.SUCCESS, start);
+            return response;
+        } catch (RuntimeException e) {
+            metrics.rentCheckout(AppMetrics.Outcome.of(e), start);
+            throw e;
+        }
+    }
+
+    private RentResponse doRentBook(UUID userId, RentRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException(
-                        messageSource.getMessage("user.notFound", null, LocaleContextHolder.getLocale())
+                        messageCatalog.get(MessageKey.USER_NOT_FOUND)
                 ));
 
         if (rentRepository.findByUserAndReturnedAtIsNull(user).isPresent()) {
-            String message = messageSource.getMessage("rent.alreadyExists", null, LocaleContextHolder.getLocale());
+            String message = messageCatalog.get(MessageKey.RENT_ALREADY_EXISTS);
             throw new IllegalStateException(message);
         }
 
         Book book = bookRepository.findById(request.bookId())
                 .orElseThrow(() -> new IllegalArgumentException(
-                        messageSource.getMessage("book.notFound", null, LocaleContextHolder.getLocale())
+                        messageCatalog.get(MessageKey.BOOK_NOT_FOUND)
                 ));
 
         if (!book.isAvailable()) {
             throw new IllegalStateException(
-                    messageSource.getMessage("book.notAvailable", null, LocaleContextHolder.getLocale())
+                    messageCatalog.get(MessageKey.BOOK_NOT_AVAILABLE)
             );
         }
 
         book.setAvailable(false);
         bookRepository.save(book);
+        catalogVersion.bump();
 
         Rent rent = Rent.builder()
                 .user(user)
@@ -79,14 +99,26 @@ public class RentService {
 
     @Transactional
     public void returnBook(String userId, Instant returnedInstant) {
+        long start = System.nanoTime();
+        try {
+            doReturnBook(userId, returnedInstant);
+            replicaRouting.recordWrite(UUID.fromString(userId));
+            metrics.rentReturn(AppMetrics.Outcome.SUCCESS, start);
+        } catch (RuntimeException e) {
+            metrics.rentReturn(AppMetrics.Outcome.of(e), start);
+            throw e;
+        }
+    }
+
+    private void doReturnBook(String userId, Instant returnedInstant) {
         User user = userRepository.findById(UUID.fromString(userId))
                 .orElseThrow(() -> new IllegalArgumentException(
-                        messageSource.getMessage("user.notFound", null, LocaleContextHolder.getLocale())
+                        messageCatalog.get(MessageKey.USER_NOT_FOUND)
                 ));
 
         Rent rent = rentRepository.findByUserAndReturnedAtIsNull(user)
                 .orElseThrow(() -> new IllegalStateException(
-                        messageSource.getMessage("rent.noData", null, LocaleContextHolder.getLocale())
+                        messageCatalog.get(MessageKey.RENT_NO_DATA)
                 ));
 
         rent.setReturnedAt(returnedInstant);
@@ -94,23 +126,24 @@ public class RentService {
 
         rentRepository.save(rent);
         bookRepository.save(rent.getBook());
+        catalogVersion.bump();
     }
 
     @Transactional(readOnly = true)
     public List<AdminRentViewResponse> getAllUnreturnedBooks() {
         return rentRepository.findByReturnedAtIsNull().stream()
-                .map(this::toAdminResponse)
+                .map(RentService::toAdminResponse)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<AdminRentViewResponse> getOverdueBooks() {
         return rentRepository.findByDueAtBeforeAndReturnedAtIsNull(Instant.now()).stream()
-                .map(this::toAdminResponse)
+                .map(RentService::toAdminResponse)
                 .collect(Collectors.toList());
     }
 
-    private AdminRentViewResponse toAdminResponse(Rent rent) {
+    static AdminRentViewResponse toAdminResponse(Rent rent) {
         return AdminRentViewResponse.builder()
                 .rentId(rent.getId())
                 .userId(rent.getUser().getId())
@@ -122,7 +155,7 @@ public class RentService {
                 .build();
     }
 
-    private LocalDate toLocalDate(Instant instant) {
+    private static LocalDate toLocalDate(Instant instant) {
         return instant != null ? instant.atZone(ZoneOffset.UTC).toLocalDate() : null;
     }
 }
@@ -1,38 +1,123 @@
 package com.ansy.library.task;
 
+import com.ansy.library.config.AppProperties;
 import com.ansy.library.repository.PasswordResetTokenRepository;
-import com.ansy.library.repository.RefreshTokenRepository;
+import com.ansy.library.repository.VerificationTokenRepository;
+import com.ansy.library.service.RedisLockService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.Map;
 
 /**
- * Scheduler ini tidak aman jika service di-deploy di multi-pod
- * Semua pod akan jalankan task yang sama
- * Akibatnya: cleanup bisa dijalankan berkali-kali dalam waktu yang sama
- * Solusinya: Gunakan distributed lock -> Redis + @SchedulerLock (pakai lib ShedLock)
+ * Cleanup token kadaluwarsa secara bertahap:
+ * - Hanya 1 pod yang jalan (distributed lock di Redis), pod lain skip
+ * - DELETE per chunk (max app.cleanup.chunk-size row) dengan jeda antar chunk,
+ *   supaya tidak menahan lock lama dan tidak membebani WAL
+ * - TTL lock diperpanjang sebelum tiap chunk: lock tidak expired di tengah run walau chunk terakhir
+ *   dimulai mendekati deadline, jadi pod lain tidak ikut menghapus tabel yang sama
+ * - Progress disimpan di Redis (checkpoint), run yang terputus dilanjutkan di run berikutnya
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class CleanupTask {
 
-    private final PasswordResetTokenRepository tokenRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private static final String LOCK_NAME = "CLEANUP_TASK";
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_DONE = "DONE";
+
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final VerificationTokenRepository verificationTokenRepository;
+    private final RedisLockService lockService;
+    private final StringRedisTemplate redisTemplate;
+    private final AppProperties properties;
 
     @Scheduled(cron = "0 0 * * * *") // Setiap jam
     public void cleanupExpiredTokens() {
-        Instant now = Instant.now();
-        int deleted = tokenRepository.deleteByExpiresAtBeforeOrUsedIsTrue(now);
-        log.info("🧹 Password reset tokens dibersihkan: {} records", deleted);
+        AppProperties.Cleanup config = properties.getCleanup();
+        String owner = lockService.tryAcquire(LOCK_NAME, config.getMaxDuration());
+        if (owner == null) {
+            log.info("🧹 Cleanup dilewati, sedang dijalankan oleh node lain");
+            return;
+        }
+
+        try {
+            Instant deadline = Instant.now().plus(config.getMaxDuration());
+            runJob("password_reset_tokens", passwordResetTokenRepository::deleteExpiredOrUsedChunk, deadline, owner);
+            runJob("verification_tokens", verificationTokenRepository::deleteExpiredOrUsedChunk, deadline, owner);
+        } finally {
+            lockService.release(LOCK_NAME, owner);
+        }
+    }
+
+    private void runJob(String table, ChunkDeleter deleter, Instant deadline, String owner) {
+        AppProperties.Cleanup config = properties.getCleanup();
+        String checkpointKey = "CLEANUP:CHECKPOINT:" + table;
+        HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+        Map<String, String> checkpoint = hash.entries(checkpointKey);
+
+        Instant cutoff;
+        long deleted;
+        if (STATUS_RUNNING.equals(checkpoint.get("status"))) {
+            // Run sebelumnya terputus, lanjutkan dengan cutoff yang sama
+            cutoff = Instant.ofEpochMilli(Long.parseLong(checkpoint.get("cutoff")));
+            deleted = Long.parseLong(checkpoint.get("deleted"));
+            log.info("🧹 Melanjutkan cleanup {} dari checkpoint: {} records", table, deleted);
+        } else {
+            cutoff = Instant.now();
+            deleted = 0;
+        }
+
+        while (true) {
+            if (Instant.now().isAfter(deadline)) {
+                saveCheckpoint(hash, checkpointKey, cutoff, deleted, STATUS_RUNNING);
+                log.warn("🧹 Cleanup {} berhenti karena melewati max-duration: {} records", table, deleted);
+                return;
+            }
+            if (!lockService.extend(LOCK_NAME, owner, config.getMaxDuration())) {
+                saveCheckpoint(hash, checkpointKey, cutoff, deleted, STATUS_RUNNING);
+                log.warn("🧹 Cleanup {} berhenti karena lock hilang: {} records", table, deleted);
+                return;
+            }
+
+            int chunk = deleter.deleteChunk(cutoff, config.getChunkSize());
+            deleted += chunk;
+            boolean done = chunk < config.getChunkSize();
+            saveCheckpoint(hash, checkpointKey, cutoff, deleted, done ? STATUS_DONE : STATUS_RUNNING);
+            if (done) {
+                break;
+            }
+
+            try {
+                Thread.sleep(config.getPause().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("🧹 Cleanup {} diinterupsi: {} records", table, deleted);
+                return;
+            }
+        }
+
+        log.info("🧹 {} dibersihkan: {} records", table, deleted);
+    }
+
+    private void saveCheckpoint(HashOperations<String, String, String> hash, String key,
+                                Instant cutoff, long deleted, String status) {
+        hash.putAll(key, Map.of(
+                "cutoff", String.valueOf(cutoff.toEpochMilli()),
+                "deleted", String.valueOf(deleted),
+                "status", status,
+                "updatedAt", Instant.now().toString()
+        ));
     }
 
-    @Scheduled(cron = "0 0 * * * *") // Every hour
-    public void cleanExpiredRefreshTokens() {
-        int delete = refreshTokenRepository.deleteAllExpiredSince(Instant.now());
-        log.info("🧹 Running scheduled cleanup of expired refresh tokens: {} records", delete);
+    @FunctionalInterface
+    private interface ChunkDeleter {
+        int deleteChunk(Instant now, int limit);
     }
 }
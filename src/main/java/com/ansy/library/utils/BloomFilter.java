@@ -0,0 +1,142 @@
+package com.ansy.library.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter string, thread-safe tanpa lock (bit di-set lewat CAS per word 64-bit).
+ * - Ukuran dari jumlah elemen yang diharapkan + false positive rate: m = -n ln p / (ln 2)^2, k = m/n ln 2
+ * - k posisi bit dari double hashing (h1 + i*h2) di atas 1 hash 64-bit FNV-1a + finalizer splitmix64
+ * - Posisi bit deterministik (tidak bergantung JVM), jadi bisa dipakai bersama sebagai bitmap Redis
+ */
+public final class BloomFilter {
+
+    private final long bitSize;
+    private final int hashCount;
+    private final AtomicLongArray words;
+    private final AtomicLong insertions = new AtomicLong();
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        this(optimalBits(expectedInsertions, falsePositiveRate),
+                optimalHashes(expectedInsertions, optimalBits(expectedInsertions, falsePositiveRate)));
+    }
+
+    public BloomFilter(long bitSize, int hashCount) {
+        if (bitSize <= 0 || bitSize > Integer.MAX_VALUE * 64L || hashCount <= 0) {
+            throw new IllegalArgumentException("Invalid bloom filter size: " + bitSize + " bits, " + hashCount + " hashes");
+        }
+        this.bitSize = bitSize;
+        this.hashCount = hashCount;
+        this.words = new AtomicLongArray((int) ((bitSize + 63) >>> 6));
+    }
+
+    public void add(String value) {
+        for (long offset : bitOffsets(value)) {
+            setBit(offset);
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * @return false = pasti belum pernah di-add, true = mungkin sudah (atau false positive)
+     */
+    public boolean mightContain(String value) {
+        for (long offset : bitOffsets(value)) {
+            if ((words.get((int) (offset >>> 6)) & (1L << offset)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long[] bitOffsets(String value) {
+        long hash = fnv1a(value);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+
+        long[] offsets = new long[hashCount];
+        for (int i = 0; i < hashCount; i++) {
+            offsets[i] = Math.floorMod(h1 + i * h2, bitSize);
+        }
+        return offsets;
+    }
+
+    /**
+     * Format bitmap Redis (SETBIT/GETBIT): bit n = byte n/8, dihitung dari MSB.
+     */
+    public byte[] toRedisBitmap() {
+        byte[] bytes = new byte[(int) ((bitSize + 7) >>> 3)];
+        for (int w = 0; w < words.length(); w++) {
+            long word = words.get(w);
+            while (word != 0) {
+                long bit = ((long) w << 6) + Long.numberOfTrailingZeros(word);
+                bytes[(int) (bit >>> 3)] |= (byte) (0x80 >>> (bit & 7));
+                word &= word - 1;
+            }
+        }
+        return bytes;
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    public long sizeInBytes() {
+        return words.length() * 8L;
+    }
+
+    public long insertions() {
+        return insertions.get();
+    }
+
+    /**
+     * Perkiraan false positive rate saat ini: (1 - e^(-kn/m))^k.
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions.get() / bitSize), hashCount);
+    }
+
+    private void setBit(long offset) {
+        int index = (int) (offset >>> 6);
+        long mask = 1L << offset;
+        long current;
+        do {
+            current = words.get(index);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(index, current, current | mask));
+    }
+
+    static long optimalBits(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid bloom filter parameters: n=" + expectedInsertions
+                    + ", p=" + falsePositiveRate);
+        }
+        return (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    }
+
+    static int optimalHashes(long expectedInsertions, long bitSize) {
+        return Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+    }
+
+    private static long fnv1a(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
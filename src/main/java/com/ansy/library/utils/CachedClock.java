@@ -0,0 +1,28 @@
+package com.ansy.library.utils;
+
+import java.time.Instant;
+
+/**
+ * Timestamp ISO-8601 (UTC) yang di-format maksimal 1x per milidetik,
+ * request lain di milidetik yang sama memakai string yang sudah jadi.
+ */
+public final class CachedClock {
+
+    private static volatile Snapshot snapshot = new Snapshot(Long.MIN_VALUE, "");
+
+    private CachedClock() {
+    }
+
+    public static String nowIso() {
+        long now = System.currentTimeMillis();
+        Snapshot current = snapshot;
+        if (current.millis() != now) {
+            current = new Snapshot(now, Instant.ofEpochMilli(now).toString());
+            snapshot = current;
+        }
+        return current.text();
+    }
+
+    private record Snapshot(long millis, String text) {
+    }
+}
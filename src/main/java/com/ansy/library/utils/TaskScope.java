@@ -0,0 +1,95 @@
+package com.ansy.library.utils;
+
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Fan-out I/O independen ke virtual thread dengan semantik structured concurrency
+ * (seperti StructuredTaskScope.ShutdownOnFailure, yang di Java 21 masih preview):
+ * - tidak ada task yang hidup lebih lama dari scope (try-with-resources)
+ * - task pertama yang gagal meng-interrupt task lain, exception-nya dilempar apa adanya dari {@link #join()}
+ * - context thread pemanggil (span tracing / observation) ikut ke tiap task
+ * <pre>
+ * try (TaskScope scope = TaskScope.open()) {
+ *     Supplier&lt;A&gt; a = scope.fork(...);
+ *     Supplier&lt;B&gt; b = scope.fork(...);
+ *     scope.join();
+ *     return combine(a.get(), b.get());
+ * }
+ * </pre>
+ */
+public final class TaskScope implements AutoCloseable {
+
+    private static final ThreadFactory THREADS = Thread.ofVirtual().name("fan-out-", 0).factory();
+    private static final ContextSnapshotFactory SNAPSHOTS = ContextSnapshotFactory.builder().build();
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(THREADS);
+    private final ContextSnapshot context = SNAPSHOTS.captureAll();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private TaskScope() {
+    }
+
+    public static TaskScope open() {
+        return new TaskScope();
+    }
+
+    /**
+     * @return hasil task, hanya boleh dibaca setelah {@link #join()} berhasil
+     */
+    public <T> Supplier<T> fork(Callable<T> task) {
+        Callable<T> contextual = context.wrap(task);
+        Future<T> future = executor.submit(() -> {
+            try {
+                return contextual.call();
+            } catch (Throwable e) {
+                if (failure.compareAndSet(null, e)) {
+                    executor.shutdownNow();
+                }
+                throw e;
+            }
+        });
+        return future::resultNow;
+    }
+
+    /**
+     * Tunggu semua task selesai. Jika ada yang gagal, exception pertama dilempar ulang
+     * (RuntimeException/Error apa adanya, checked exception dibungkus IllegalStateException).
+     */
+    public void join() {
+        executor.close();
+        if (Thread.currentThread().isInterrupted()) {
+            throw new IllegalStateException("Interrupted while waiting for forked tasks");
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        if (error != null) {
+            throw new IllegalStateException(error);
+        }
+    }
+
+    /**
+     * Task yang belum selesai (scope ditinggal karena exception sebelum join) di-interrupt dan ditunggu.
+     */
+    @Override
+    public void close() {
+        if (!executor.isTerminated()) {
+            executor.shutdownNow();
+            executor.close();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.ansy.library.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Helper untuk token rahasia (verifikasi email, reset password, refresh token).
+ * Token mentah (dibuat {@link com.ansy.library.security.TokenGuard}) hanya dikirim ke user,
+ * yang disimpan hanya digest SHA-256 (32 byte).
+ */
+public final class TokenUtil {
+
+    private TokenUtil() {
+    }
+
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
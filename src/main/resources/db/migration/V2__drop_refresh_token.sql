@@ -0,0 +1,2 @@
+-- Refresh token dipindah ke Redis (key = SHA-256 token, TTL 7 hari)
+DROP TABLE IF EXISTS refresh_token;
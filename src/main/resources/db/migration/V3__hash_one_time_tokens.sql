@@ -0,0 +1,19 @@
+-- Token sekali pakai disimpan sebagai digest SHA-256 (bytea 32 byte), bukan plaintext VARCHAR(255)
+
+-- VERIFICATION TOKENS
+ALTER TABLE verification_tokens ADD COLUMN token_hash BYTEA;
+UPDATE verification_tokens SET token_hash = sha256(convert_to(token, 'UTF8'));
+ALTER TABLE verification_tokens ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE verification_tokens DROP COLUMN token;
+ALTER TABLE verification_tokens
+    ADD CONSTRAINT verification_tokens_token_hash_key UNIQUE (token_hash),
+    ADD CONSTRAINT verification_tokens_token_hash_len CHECK (octet_length(token_hash) = 32);
+
+-- PASSWORD RESET TOKENS
+ALTER TABLE password_reset_tokens ADD COLUMN token_hash BYTEA;
+UPDATE password_reset_tokens SET token_hash = sha256(convert_to(token, 'UTF8'));
+ALTER TABLE password_reset_tokens ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE password_reset_tokens DROP COLUMN token;
+ALTER TABLE password_reset_tokens
+    ADD CONSTRAINT password_reset_tokens_token_hash_key UNIQUE (token_hash),
+    ADD CONSTRAINT password_reset_tokens_token_hash_len CHECK (octet_length(token_hash) = 32);
@@ -0,0 +1,11 @@
+-- Index untuk CleanupTask: DELETE ... WHERE expires_at < :now OR used = true LIMIT :limit
+-- Tanpa index, tiap chunk seq scan seluruh tabel; dengan 2 index ini jadi BitmapOr
+-- Partial index hanya berisi token yang sudah dipakai (sebagian kecil tabel)
+
+-- VERIFICATION TOKENS
+CREATE INDEX verification_tokens_expires_at_idx ON verification_tokens (expires_at);
+CREATE INDEX verification_tokens_used_idx ON verification_tokens (expires_at) WHERE used = true;
+
+-- PASSWORD RESET TOKENS
+CREATE INDEX password_reset_tokens_expires_at_idx ON password_reset_tokens (expires_at);
+CREATE INDEX password_reset_tokens_used_idx ON password_reset_tokens (expires_at) WHERE used = true;
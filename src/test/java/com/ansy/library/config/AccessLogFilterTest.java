@@ -0,0 +1,42 @@
+package com.ansy.library.config;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class AccessLogFilterTest {
+
+    private final AppProperties.AccessLog properties = new AppProperties.AccessLog();
+    private final AsyncAccessLogWriter writer = mock(AsyncAccessLogWriter.class);
+
+    @Test
+    void queryTokenShouldBeMaskedOnEveryRequest() throws Exception {
+        // Tanpa sample payload: redaksi query tidak boleh bergantung pada sampling
+        properties.setPayloadSampleRate(0);
+        AccessLogFilter filter = new AccessLogFilter(writer, properties);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/auth/verify");
+        request.setQueryString("token=abc123&lang=en");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        ArgumentCaptor<AccessLogEvent> event = ArgumentCaptor.forClass(AccessLogEvent.class);
+        verify(writer).offer(event.capture());
+        assertThat(event.getValue().query()).isEqualTo("token=***&lang=en");
+    }
+
+    @Test
+    void redactQueryShouldMaskOnlyConfiguredParams() {
+        AccessLogFilter filter = new AccessLogFilter(writer, properties);
+
+        assertThat(filter.redactQuery("page=1&size=20")).isEqualTo("page=1&size=20");
+        assertThat(filter.redactQuery("refreshToken=r.t.s")).isEqualTo("refreshToken=***");
+        assertThat(filter.redactQuery("a=1&PASSWORD=x&tokens=y&token")).isEqualTo("a=1&PASSWORD=***&tokens=y&token=***");
+        assertThat(filter.redactQuery(null)).isNull();
+    }
+}
@@ -0,0 +1,69 @@
+package com.ansy.library.config;
+
+import com.ansy.library.dto.ApiResponse;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AppTracingTest {
+
+    private InMemorySpanExporter exporter;
+    private Tracer tracer;
+    private AppTracing tracing;
+
+    @BeforeEach
+    void setUp() {
+        exporter = InMemorySpanExporter.create();
+        SdkTracerProvider provider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build();
+        tracer = new OtelTracer(provider.get("test"), new OtelCurrentTraceContext(), event -> { });
+        tracing = new AppTracing(tracer);
+    }
+
+    @Test
+    void shouldCreateChildSpanAndTagResponseIdOnParent() {
+        Span request = tracer.nextSpan().name("http post /auth/login").start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(request)) {
+            boolean matches = tracing.inSpan("login.bcrypt", () -> true);
+            assertThat(matches).isTrue();
+
+            ApiResponse<String> body = ApiResponse.success("ok");
+            new ResponseIdTracingAdvice(tracing).beforeBodyWrite(body, null, null, null, null, null);
+        } finally {
+            request.end();
+        }
+
+        List<SpanData> spans = exporter.getFinishedSpanItems();
+        SpanData bcrypt = spans.stream().filter(s -> s.getName().equals("login.bcrypt")).findFirst().orElseThrow();
+        SpanData http = spans.stream().filter(s -> s.getName().equals("http post /auth/login")).findFirst().orElseThrow();
+
+        assertThat(bcrypt.getParentSpanId()).isEqualTo(http.getSpanId());
+        assertThat(http.getAttributes().asMap().entrySet())
+                .anyMatch(e -> e.getKey().getKey().equals(AppTracing.RESPONSE_ID) && e.getValue() != null);
+    }
+
+    @Test
+    void shouldRecordErrorOnSpan() {
+        assertThatThrownBy(() -> tracing.inSpan("mail.send", () -> {
+            throw new IllegalStateException("smtp down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        SpanData span = exporter.getFinishedSpanItems().get(0);
+        assertThat(span.getName()).isEqualTo("mail.send");
+        assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+    }
+}
@@ -0,0 +1,48 @@
+package com.ansy.library.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncAccessLogWriterTest {
+
+    @Test
+    void shouldDropEventsWhenBufferIsFull() {
+        // Writer belum di-start, tidak ada yang mengosongkan buffer
+        AsyncAccessLogWriter writer = new AsyncAccessLogWriter(2, line -> { });
+
+        assertThat(writer.offer(event(null, null))).isTrue();
+        assertThat(writer.offer(event(null, null))).isTrue();
+        assertThat(writer.offer(event(null, null))).isFalse();
+        assertThat(writer.droppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldWriteStructuredJsonOffRequestThread() throws Exception {
+        List<String> lines = new CopyOnWriteArrayList<>();
+        AsyncAccessLogWriter writer = new AsyncAccessLogWriter(16, lines::add);
+        writer.start();
+
+        writer.offer(event(Map.of("Authorization", "[REDACTED]"),
+                "{\"email\":\"a@b.com\",\"password\":\"Secret\\\"1\"}"));
+
+        // close() menunggu sampai buffer habis ditulis
+        writer.close();
+
+        assertThat(lines.get(0))
+                .startsWith("{\"timestamp\":\"2025-01-01T00:00:00Z\",\"method\":\"POST\",\"uri\":\"/auth/login\"")
+                .contains("\"status\":401", "\"durationNanos\":1500000", "\"userAgent\":\"curl \\\"8\\\"\"")
+                .contains("\"headers\":{\"Authorization\":\"[REDACTED]\"}")
+                .contains("\\\"password\\\":\\\"[REDACTED]\\\"")
+                .doesNotContain("Secret");
+    }
+
+    private static AccessLogEvent event(Map<String, String> headers, String payload) {
+        return new AccessLogEvent(1_735_689_600_000L, "POST", "/auth/login", null, 401, 1_500_000L,
+                "127.0.0.1", "curl \"8\"", null, null, headers, payload);
+    }
+}
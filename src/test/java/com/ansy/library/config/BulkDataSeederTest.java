@@ -0,0 +1,26 @@
+package com.ansy.library.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkDataSeederTest {
+
+    @Test
+    void seededIdShouldMatchK6Formula() {
+        // Nilai yang sama tertulis di loadtest/k6/lib/common.js
+        UUID book42 = BulkDataSeeder.seededId(BulkDataSeeder.TABLE_BOOK, 42);
+
+        assertThat(book42.toString()).isEqualTo("018bcfe5-682a-7002-8000-00000000002a");
+        assertThat(book42.version()).isEqualTo(7);
+        assertThat(book42.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void seededIdShouldBeUniqueAcrossTables() {
+        assertThat(BulkDataSeeder.seededId(BulkDataSeeder.TABLE_USER, 7))
+                .isNotEqualTo(BulkDataSeeder.seededId(BulkDataSeeder.TABLE_BOOK, 7));
+    }
+}
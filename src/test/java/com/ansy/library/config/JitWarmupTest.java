@@ -0,0 +1,97 @@
+package com.ansy.library.config;
+
+import com.ansy.library.config.AppMetrics.WarmupPath;
+import com.ansy.library.dto.BookDto;
+import com.ansy.library.security.JwtAuthenticationFilter;
+import com.ansy.library.security.JwtKeyManager;
+import com.ansy.library.service.BookService;
+import com.ansy.library.service.JwtService;
+import com.ansy.library.service.RedisSessionService;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JitWarmupTest {
+
+    private final AppProperties properties = new AppProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RedisSessionService sessions = mock(RedisSessionService.class);
+    private final BookService bookService = mock(BookService.class);
+    private JitWarmup warmup;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+        ECPublicKey publicKey = (ECPublicKey) keyPair.getPublic();
+
+        JwtKeyManager keyManager = mock(JwtKeyManager.class);
+        when(keyManager.currentKey()).thenReturn(
+                new JwtKeyManager.SigningKey("test-kid", Instant.now(), keyPair.getPrivate(), publicKey));
+        when(keyManager.verificationKey("test-kid")).thenReturn(publicKey);
+
+        properties.setJwtExpiration(3600L);
+        properties.getWarmup().setIterations(50);
+        JwtService jwtService = new JwtService(properties, keyManager);
+        jwtService.init();
+
+        // Redis & DB ada di belakang bean ini; di aplikasi warm-up memakai bean asli
+        when(sessions.sessionExists(any(), any())).thenReturn(true);
+        List<BookDto> books = IntStream.range(0, 30)
+                .mapToObj(i -> BookDto.builder().id(UUID.randomUUID()).title("Book " + i).author("Author").build())
+                .toList();
+        when(bookService.getAvailableBooks()).thenReturn(books);
+        when(bookService.getBookById(any())).thenAnswer(inv -> books.get(0));
+
+        MessageCatalog messageCatalog = new MessageCatalog();
+        AppTracing tracing = new AppTracing(Tracer.NOOP);
+        warmup = new JitWarmup(properties, new AppMetrics(registry), jwtService,
+                new JwtAuthenticationFilter(jwtService, sessions, messageCatalog, tracing), sessions, bookService,
+                messageCatalog, JsonMapper.builder().findAndAddModules().build(), Tracer.NOOP);
+    }
+
+    @Test
+    void shouldWarmUpEveryPathWithoutLeakingSecurityContext() {
+        warmup.run(new DefaultApplicationArguments());
+
+        for (WarmupPath path : WarmupPath.values()) {
+            assertThat(registry.get("library.warmup").tag("path", path.name().toLowerCase()).timer().count())
+                    .as(path.name())
+                    .isEqualTo(1);
+        }
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        // Session warm-up dibuat lalu dihapus lagi
+        verify(sessions).storeSession(any(), any(), any());
+        verify(sessions).invalidateSession(any(), any());
+    }
+
+    @Test
+    void shouldSkipRemainingPathsWhenBudgetIsExhausted() {
+        properties.getWarmup().setMaxDuration(Duration.ZERO);
+
+        warmup.run(new DefaultApplicationArguments());
+
+        assertThat(registry.get("library.warmup").timers()).allSatisfy(timer -> assertThat(timer.count()).isZero());
+    }
+}
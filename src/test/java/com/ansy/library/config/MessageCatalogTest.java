@@ -0,0 +1,42 @@
+package com.ansy.library.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageCatalogTest {
+
+    @Test
+    void shouldHaveSameKeysInEveryLanguage() {
+        Properties reference = MessageCatalog.load("messages_" + MessageCatalog.LANGUAGES[0] + ".properties");
+
+        for (String language : MessageCatalog.LANGUAGES) {
+            Properties properties = MessageCatalog.load("messages_" + language + ".properties");
+            assertThat(properties.stringPropertyNames())
+                    .as("messages_%s.properties", language)
+                    .isEqualTo(reference.stringPropertyNames());
+        }
+    }
+
+    @Test
+    void shouldCompileEveryMessageKey() {
+        String[][] table = MessageCatalog.compile();
+
+        for (String[] messages : table) {
+            assertThat(messages).hasSize(MessageKey.values().length).doesNotContainNull();
+        }
+    }
+
+    @Test
+    void shouldFallBackToDefaultLanguage() {
+        MessageCatalog catalog = new MessageCatalog();
+
+        assertThat(catalog.get(MessageKey.LOGIN_SUCCESS, Locale.FRENCH))
+                .isEqualTo(catalog.get(MessageKey.LOGIN_SUCCESS, MessageCatalog.DEFAULT_LOCALE));
+        assertThat(catalog.get(MessageKey.LOGIN_SUCCESS, Locale.ENGLISH))
+                .isNotEqualTo(catalog.get(MessageKey.LOGIN_SUCCESS, MessageCatalog.DEFAULT_LOCALE));
+    }
+}
@@ -0,0 +1,158 @@
+package com.ansy.library.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replicaA = mock(DataSource.class);
+    private final DataSource replicaB = mock(DataSource.class);
+    private final Map<DataSource, Double> lags = new HashMap<>();
+
+    private ReadReplicaRouting routing;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReadReplicaRouting(new AppProperties());
+        dataSource = new ReplicaRoutingDataSource(primary, List.of(replicaA, replicaB), routing, Duration.ofSeconds(5)) {
+            @Override
+            double lagSeconds(DataSource replica) throws SQLException {
+                Double lag = lags.get(replica);
+                if (lag == null) {
+                    throw new SQLException("Connection refused");
+                }
+                return lag;
+            }
+        };
+        lags.put(replicaA, 0.0);
+        lags.put(replicaB, 0.0);
+        dataSource.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void writeTransactionsGoToPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    void readOnlyTransactionsAreSpreadOverReplicas() {
+        Object first = dataSource.determineCurrentLookupKey();
+        Object second = dataSource.determineCurrentLookupKey();
+
+        assertThat(List.of(first, second)).containsExactlyInAnyOrder(
+                ReplicaRoutingDataSource.replicaKey(0), ReplicaRoutingDataSource.replicaKey(1));
+    }
+
+    @Test
+    void laggingOrUnreachableReplicasAreSkipped() {
+        lags.put(replicaA, 30.0);
+        lags.remove(replicaB);
+        dataSource.checkReplicas();
+
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        lags.put(replicaB, 1.0);
+        dataSource.checkReplicas();
+
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.replicaKey(1));
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.replicaKey(1));
+    }
+
+    @Test
+    void userWhoJustWroteReadsFromPrimary() {
+        UUID writer = UUID.randomUUID();
+        routing.recordWrite(writer);
+
+        authenticate(writer);
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        authenticate(UUID.randomUUID());
+        assertThat(dataSource.determineCurrentLookupKey()).isNotEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    void onPrimaryOverridesReadOnlyRouting() {
+        Object key = ReadReplicaRouting.onPrimary(dataSource::determineCurrentLookupKey);
+
+        assertThat(key).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        assertThat(dataSource.determineCurrentLookupKey()).isNotEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    /**
+     * Dua PostgreSQL lokal dengan streaming replication, mis.
+     * REPLICA_TEST_PRIMARY_URL=jdbc:postgresql://localhost:5432/library-app
+     * REPLICA_TEST_REPLICA_URL=jdbc:postgresql://localhost:5433/library-app
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "REPLICA_TEST_REPLICA_URL", matches = ".+")
+    void routesToRealStandby() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        try (HikariDataSource realPrimary = pool(System.getenv("REPLICA_TEST_PRIMARY_URL"));
+             HikariDataSource realReplica = pool(System.getenv("REPLICA_TEST_REPLICA_URL"))) {
+            ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(
+                    realPrimary, List.of(realReplica), routing, Duration.ofSeconds(5));
+            routingDataSource.afterPropertiesSet();
+            routingDataSource.checkReplicas();
+
+            DataSource lazy = new LazyConnectionDataSourceProxy(routingDataSource);
+            JdbcTemplate jdbc = new JdbcTemplate(lazy);
+            TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(lazy));
+            readOnly.setReadOnly(true);
+            TransactionTemplate write = new TransactionTemplate(new DataSourceTransactionManager(lazy));
+
+            Boolean readOnlyInRecovery = readOnly.execute(
+                    status -> jdbc.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+            Boolean writeInRecovery = write.execute(
+                    status -> jdbc.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+
+            assertThat(readOnlyInRecovery).isTrue();
+            assertThat(writeInRecovery).isFalse();
+        }
+    }
+
+    private static HikariDataSource pool(String url) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(url);
+        pool.setUsername(System.getenv().getOrDefault("REPLICA_TEST_USERNAME", "postgres"));
+        pool.setPassword(System.getenv().getOrDefault("REPLICA_TEST_PASSWORD", "password"));
+        pool.setMaximumPoolSize(2);
+        return pool;
+    }
+
+    private static void authenticate(UUID userId) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userId.toString(), null, List.of()));
+    }
+}
@@ -0,0 +1,59 @@
+package com.ansy.library.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StatelessLocaleResolverTest {
+
+    private final StatelessLocaleResolver resolver = new StatelessLocaleResolver();
+
+    @Test
+    void shouldResolveFromAcceptLanguage() {
+        assertThat(resolve("en-US,en;q=0.9").getLanguage()).isEqualTo("en");
+        assertThat(resolve("fr-FR,en;q=0.5,id;q=0.8").getLanguage()).isEqualTo("id");
+        assertThat(resolve("fr, de;q=0.7")).isEqualTo(MessageCatalog.DEFAULT_LOCALE);
+        assertThat(resolve("en;q=0")).isEqualTo(MessageCatalog.DEFAULT_LOCALE);
+        assertThat(resolve(";;invalid;;")).isEqualTo(MessageCatalog.DEFAULT_LOCALE);
+        assertThat(resolve(null)).isEqualTo(MessageCatalog.DEFAULT_LOCALE);
+    }
+
+    @Test
+    void shouldPreferLocaleClaimFromToken() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Accept-Language", "id");
+        request.setAttribute(StatelessLocaleResolver.CLAIM_LOCALE_ATTRIBUTE, StatelessLocaleResolver.supportedLocale("en"));
+
+        assertThat(resolver.resolveLocale(request).getLanguage()).isEqualTo("en");
+    }
+
+    @Test
+    void shouldNeverCreateHttpSession() {
+        String[] headers = {"en", "id-ID", "en-GB,en;q=0.8", "fr", null};
+        for (int i = 0; i < 10_000; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            if (headers[i % headers.length] != null) {
+                request.addHeader("Accept-Language", headers[i % headers.length]);
+            }
+            resolver.resolveLocale(request);
+
+            assertThat(request.getSession(false)).isNull();
+        }
+
+        assertThatThrownBy(() -> resolver.setLocale(new MockHttpServletRequest(), new MockHttpServletResponse(), Locale.ENGLISH))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private Locale resolve(String acceptLanguage) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (acceptLanguage != null) {
+            request.addHeader("Accept-Language", acceptLanguage);
+        }
+        return resolver.resolveLocale(request);
+    }
+}
@@ -1,13 +1,17 @@
 package com.ansy.library.controller;
 
+import com.ansy.library.config.AppMetrics.TokenType;
 import com.ansy.library.dto.LoginRequest;
 import com.ansy.library.dto.RegisterRequest;
 import com.ansy.library.entity.User;
 import com.ansy.library.entity.VerificationToken;
 import com.ansy.library.repository.UserRepository;
 import com.ansy.library.repository.VerificationTokenRepository;
+import com.ansy.library.security.TokenGuard;
+import com.ansy.library.service.EmailFilterService;
 import com.ansy.library.service.JwtService;
 import com.ansy.library.service.RedisSessionService;
+import com.ansy.library.utils.TokenUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -16,12 +20,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -50,6 +57,12 @@ public class AuthControllerIntegrationTest {
     @Autowired
     private RedisSessionService redisSessionService;
 
+    @Autowired
+    private EmailFilterService emailFilterService;
+
+    @Autowired
+    private TokenGuard tokenGuard;
+
     @AfterEach
     void cleanupRedisKeys() {
         redisTemplate.delete("RATE_LIMIT:LOGIN_FAIL:ratelimit@example.com:127.0.0.1");
@@ -60,9 +73,7 @@ public class AuthControllerIntegrationTest {
     @Test
     @Transactional
     void register_shouldReturnSuccessOrFailure() throws Exception {
-        RegisterRequest request = new RegisterRequest();
-        request.setEmail("testuser@example.com");
-        request.setPassword("Password1");
+        RegisterRequest request = new RegisterRequest("testuser@example.com", "Password1");
 
         mockMvc.perform(post("/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -82,10 +93,10 @@ public class AuthControllerIntegrationTest {
         user.setCreatedAt(Instant.now());
         user.setUpdatedAt(Instant.now());
         userRepository.save(user);
+        // Insert langsung ke repository tidak lewat register, filter baru tahu setelah rebuild
+        emailFilterService.add(user.getEmail());
 
-        RegisterRequest request = new RegisterRequest();
-        request.setEmail("existuser@example.com");
-        request.setPassword("Password1");
+        RegisterRequest request = new RegisterRequest("existuser@example.com", "Password1");
 
         mockMvc.perform(post("/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -117,15 +128,18 @@ public class AuthControllerIntegrationTest {
         user.setUpdatedAt(Instant.now());
         user = userRepository.save(user);
 
+        Instant expiresAt = Instant.now().plusSeconds(3600).truncatedTo(ChronoUnit.SECONDS);
+        String rawToken = tokenGuard.issue(TokenType.VERIFICATION, expiresAt);
+
         VerificationToken token = new VerificationToken();
         token.setId(UUID.randomUUID());
-        token.setToken("valid-token");
+        token.setTokenHash(TokenUtil.sha256(rawToken));
         token.setUser(user);
-        token.setExpiresAt(Instant.now().plusSeconds(3600));
+        token.setExpiresAt(expiresAt);
         verificationTokenRepository.save(token);
 
         mockMvc.perform(get("/auth/verify")
-                        .param("token", "valid-token")
+                        .param("token", rawToken)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
@@ -135,9 +149,7 @@ public class AuthControllerIntegrationTest {
     @Test
     @Transactional
     void register_shouldFailIfEmailDomainInvalid() throws Exception {
-        RegisterRequest request = new RegisterRequest();
-        request.setEmail("user@invalid-domain-xyz123.com");
-        request.setPassword("Password1");
+        RegisterRequest request = new RegisterRequest("user@invalid-domain-xyz123.com", "Password1");
 
         mockMvc.perform(post("/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -150,9 +162,7 @@ public class AuthControllerIntegrationTest {
     @Test
     @Transactional
     void register_shouldFailIfPasswordWeak() throws Exception {
-        RegisterRequest request = new RegisterRequest();
-        request.setEmail("user@example.com");
-        request.setPassword("12345678"); // no uppercase or lowercase mix
+        RegisterRequest request = new RegisterRequest("user@example.com", "12345678"); // no uppercase or lowercase mix
 
         mockMvc.perform(post("/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -173,9 +183,7 @@ public class AuthControllerIntegrationTest {
         user.setUpdatedAt(Instant.now());
         user = userRepository.save(user);
 
-        LoginRequest request = new LoginRequest();
-        request.setEmail("loginuser@example.com");
-        request.setPassword("Password1");
+        LoginRequest request = new LoginRequest("loginuser@example.com", "Password1");
 
         mockMvc.perform(post("/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -197,9 +205,7 @@ public class AuthControllerIntegrationTest {
         user.setUpdatedAt(Instant.now());
         user = userRepository.save(user);
 
-        LoginRequest request = new LoginRequest();
-        request.setEmail("failuser@example.com");
-        request.setPassword("WrongPassword");
+        LoginRequest request = new LoginRequest("failuser@example.com", "WrongPassword");
 
         mockMvc.perform(post("/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -220,9 +226,7 @@ public class AuthControllerIntegrationTest {
         user.setUpdatedAt(Instant.now());
         userRepository.save(user);
 
-        LoginRequest request = new LoginRequest();
-        request.setEmail("ratelimit@example.com");
-        request.setPassword("WrongPassword");
+        LoginRequest request = new LoginRequest("ratelimit@example.com", "WrongPassword");
 
         for (int i = 0; i < 5; i++) {
             mockMvc.perform(post("/auth/login")
@@ -280,4 +284,37 @@ public class AuthControllerIntegrationTest {
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.message").value("Invalid or expiry session"));
     }
+
+    @Test
+    void requests_shouldNeverCreateHttpSession() throws Exception {
+        String[] languages = {"en", "id", "fr-FR,en;q=0.5"};
+        for (int i = 0; i < 300; i++) {
+            MvcResult protectedResult = mockMvc.perform(get("/books")
+                            .header("Accept-Language", languages[i % languages.length]))
+                    .andReturn();
+            MvcResult verifyResult = mockMvc.perform(get("/auth/verify")
+                            .param("token", "invalid-token")
+                            .header("Accept-Language", languages[i % languages.length]))
+                    .andReturn();
+
+            assertNull(protectedResult.getRequest().getSession(false));
+            assertNull(verifyResult.getRequest().getSession(false));
+        }
+    }
+
+    @Test
+    void locale_shouldFollowTokenClaim() throws Exception {
+        UUID userId = UUID.randomUUID();
+        String sessionId = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        String token = jwtService.generateToken(userId, "USER", sessionId, "en", now, now.plusSeconds(3600));
+        redisSessionService.storeSession(userId, sessionId, now.plusSeconds(3600));
+
+        mockMvc.perform(post("/auth/logout")
+                        .header("Authorization", "Bearer " + token)
+                        .header("Accept-Language", "id")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Logout successfully"));
+    }
 }
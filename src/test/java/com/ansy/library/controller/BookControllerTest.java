@@ -0,0 +1,92 @@
+package com.ansy.library.controller;
+
+import com.ansy.library.config.AppMetrics;
+import com.ansy.library.config.AppProperties;
+import com.ansy.library.config.MessageCatalog;
+import com.ansy.library.config.RedisCircuitBreaker;
+import com.ansy.library.dto.BookDto;
+import com.ansy.library.service.BookService;
+import com.ansy.library.service.CatalogVersionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BookControllerTest {
+
+    // Nilai BOOK_CATALOG:VERSION di Redis: "{versi}:{epoch ms perubahan terakhir}"
+    private final AtomicReference<String> storedVersion = new AtomicReference<>("1:1700000000000");
+    private final BookService bookService = mock(BookService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        when(values.get(anyString())).thenAnswer(inv -> storedVersion.get());
+
+        AppMetrics metrics = new AppMetrics(new SimpleMeterRegistry());
+        AppProperties properties = new AppProperties();
+        CatalogVersionService catalogVersion = new CatalogVersionService(redis,
+                new RedisCircuitBreaker(redis, metrics, properties), properties);
+        when(bookService.getAvailableBooks()).thenReturn(List.of(
+                BookDto.builder().id(UUID.randomUUID()).title("Clean Code").author("Robert C. Martin").build()));
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new BookController(bookService, new MessageCatalog(), catalogVersion))
+                .build();
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWithoutLoadingBooks() throws Exception {
+        String etag = mockMvc.perform(get("/books"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(jsonPath("$.success").value(true))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/books").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(bookService, times(1)).getAvailableBooks();
+
+        // Versi naik (rent / return di pod mana pun) = ETag lama tidak cocok lagi
+        storedVersion.set("2:1700000001000");
+        mockMvc.perform(get("/books").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].title").value("Clean Code"));
+        verify(bookService, times(2)).getAvailableBooks();
+    }
+
+    @Test
+    void unknownVersionShouldAlwaysReturnFullResponse() throws Exception {
+        // Key tidak ada & bump gagal (Redis down): tanpa ETag, If-None-Match lama tidak boleh dapat 304
+        storedVersion.set(null);
+
+        mockMvc.perform(get("/books").header("If-None-Match", "W/\"1-x-en\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+        verify(bookService).getAvailableBooks();
+    }
+}
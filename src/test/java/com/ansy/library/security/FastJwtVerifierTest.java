@@ -0,0 +1,116 @@
+package com.ansy.library.security;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FastJwtVerifierTest {
+
+    private static final String KID = "test-kid";
+
+    private final AtomicBoolean pruned = new AtomicBoolean();
+    private KeyPair keyPair;
+    private FastJwtVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        keyPair = generator.generateKeyPair();
+        verifier = new FastJwtVerifier(kid -> KID.equals(kid) && !pruned.get() ? keyPair.getPublic() : null, null);
+    }
+
+    @Test
+    void shouldExtractClaimsFromOwnToken() {
+        UUID userId = UUID.randomUUID();
+        String token = token(userId, Instant.now().plusSeconds(3600), false);
+
+        AccessTokenClaims claims = verifier.verify(token, System.currentTimeMillis());
+
+        assertThat(claims).isNotNull();
+        assertThat(claims.userId()).isEqualTo(userId);
+        assertThat(claims.role()).isEqualTo("USER");
+        assertThat(claims.sessionId()).isEqualTo("session-1");
+        assertThat(claims.locale()).isEqualTo("en");
+    }
+
+    @Test
+    void shouldRejectTamperedSignature() {
+        String token = token(UUID.randomUUID(), Instant.now().plusSeconds(3600), false);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> verifier.verify(tampered, System.currentTimeMillis()))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void shouldFallBackForUnexpectedClaimOrExpiredToken() {
+        String withExtraClaim = token(UUID.randomUUID(), Instant.now().plusSeconds(3600), true);
+        String expired = token(UUID.randomUUID(), Instant.now().minusSeconds(10), false);
+
+        assertThat(verifier.verify(withExtraClaim, System.currentTimeMillis())).isNull();
+        assertThat(verifier.verify(expired, System.currentTimeMillis())).isNull();
+    }
+
+    @Test
+    void prunedKidShouldNotBeServedFromPreviousLookup() {
+        String token = token(UUID.randomUUID(), Instant.now().plusSeconds(3600), false);
+        assertThat(verifier.verify(token, System.currentTimeMillis())).isNotNull();
+
+        pruned.set(true);
+
+        assertThat(verifier.verify(token, System.currentTimeMillis())).isNull();
+    }
+
+    @Test
+    void pooledStateShouldBeSafeAcrossVirtualThreads() throws Exception {
+        List<UUID> users = IntStream.range(0, 64).mapToObj(i -> UUID.randomUUID()).toList();
+        List<String> tokens = users.stream().map(user -> token(user, Instant.now().plusSeconds(3600), false)).toList();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<UUID>> results = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                String token = tokens.get(i % tokens.size());
+                results.add(executor.submit(() -> verifier.verify(token, System.currentTimeMillis()).userId()));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertThat(results.get(i).get()).isEqualTo(users.get(i % users.size()));
+            }
+        }
+    }
+
+    private String token(UUID userId, Instant expiredAt, boolean extraClaim) {
+        var builder = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, KID)
+                .claim("uid", userId.toString())
+                .claim("role", "USER")
+                .claim("sid", "session-1")
+                .claim("locale", "en")
+                .setIssuedAt(new Date())
+                .setExpiration(Date.from(expiredAt));
+        if (extraClaim) {
+            builder.claim("scope", "admin");
+        }
+        return builder.signWith(keyPair.getPrivate(), SignatureAlgorithm.ES256).compact();
+    }
+}
@@ -0,0 +1,111 @@
+package com.ansy.library.security;
+
+import com.ansy.library.config.AppProperties;
+import com.ansy.library.service.RedisLockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtKeyManagerTest {
+
+    private final Map<String, String> stored = new HashMap<>();
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    private final RedisLockService lockService = mock(RedisLockService.class);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        HashOperations<String, Object, Object> hash = mock(HashOperations.class);
+        when(redis.opsForHash()).thenReturn(hash);
+        when(hash.entries("JWT_KEYS")).thenAnswer(inv -> new HashMap<>(stored));
+        doAnswer(inv -> stored.put(inv.getArgument(1), inv.getArgument(2)))
+                .when(hash).put(eq("JWT_KEYS"), any(), any());
+        when(lockService.tryAcquire(any(), any())).thenReturn("owner");
+    }
+
+    private JwtKeyManager manager(byte[] encryptionKey) {
+        AppProperties properties = new AppProperties();
+        properties.setJwtExpiration(3600L);
+        if (encryptionKey != null) {
+            properties.setJwtKeyEncryptionKey(Base64.getEncoder().encodeToString(encryptionKey));
+        }
+        JwtKeyManager manager = new JwtKeyManager(redis, lockService, properties);
+        manager.init();
+        return manager;
+    }
+
+    @Test
+    void privateKeyShouldBeEncryptedInRedis() {
+        JwtKeyManager.SigningKey key = manager(new byte[32]).currentKey();
+
+        String value = stored.get(key.kid());
+        assertThat(value).doesNotContain(Base64.getEncoder().encodeToString(key.privateKey().getEncoded()));
+        assertThat(value.split(":")[1]).startsWith("gcm.");
+        assertThat(manager(new byte[32]).currentKey().privateKey()).isEqualTo(key.privateKey());
+    }
+
+    @Test
+    void wrongOrMissingEncryptionKeyShouldFailInsteadOfSigning() {
+        manager(new byte[32]);
+
+        byte[] other = new byte[32];
+        other[0] = 1;
+        assertThatThrownBy(() -> manager(other)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> manager(null)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void plaintextKeysShouldBeReEncryptedByLockOwner() {
+        JwtKeyManager.SigningKey legacy = manager(null).currentKey();
+        assertThat(stored.get(legacy.kid()).split(":")[1]).doesNotStartWith("gcm.");
+
+        JwtKeyManager upgraded = manager(new byte[32]);
+        assertThat(upgraded.currentKey().privateKey()).isEqualTo(legacy.privateKey());
+
+        upgraded.rotateIfDue();
+
+        assertThat(stored.get(legacy.kid()).split(":")[1]).startsWith("gcm.");
+        assertThat(manager(new byte[32]).currentKey().privateKey()).isEqualTo(legacy.privateKey());
+    }
+
+    @Test
+    void rotatedKeyShouldBePublishedBeforeItSigns() {
+        JwtKeyManager.SigningKey old = manager(new byte[32]).currentKey();
+        backdate(old.kid(), Duration.ofDays(8));
+
+        JwtKeyManager manager = manager(new byte[32]);
+        manager.rotateIfDue();
+
+        String newKid = stored.keySet().stream().filter(kid -> !kid.equals(old.kid())).findFirst().orElseThrow();
+        assertThat(manager.jwks().toString()).contains(newKid);
+        assertThat(manager.currentKey().kid()).isEqualTo(old.kid());
+
+        // Key pending tidak memicu rotasi ulang
+        manager.rotateIfDue();
+        assertThat(stored).hasSize(2);
+
+        // Setelah cache JWKS di verifier pasti expired, key baru baru dipakai sign
+        backdate(newKid, JwtKeyManager.KEY_ACTIVATION_DELAY.plusSeconds(1));
+        assertThat(manager(new byte[32]).currentKey().kid()).isEqualTo(newKid);
+    }
+
+    private void backdate(String kid, Duration age) {
+        String value = stored.get(kid);
+        stored.put(kid, Instant.now().minus(age).toEpochMilli() + value.substring(value.indexOf(':')));
+    }
+}
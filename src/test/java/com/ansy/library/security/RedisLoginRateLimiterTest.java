@@ -1,5 +1,9 @@
 package com.ansy.library.security;
 
+import com.ansy.library.config.AppMetrics;
+import com.ansy.library.config.AppProperties;
+import com.ansy.library.config.RedisCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,11 +18,15 @@ class RedisLoginRateLimiterTest {
     @Autowired
     private StringRedisTemplate redis;
 
+    private final AppProperties properties = new AppProperties();
     private RedisRateLimiter limiter;
 
     @BeforeEach
     void setup() {
-        limiter = new RedisRateLimiter(redis);
+        AppMetrics metrics = new AppMetrics(new SimpleMeterRegistry());
+        properties.getCredentialStuffing().setEmailsPerIp(3);
+        properties.getCredentialStuffing().setIpsPerEmail(3);
+        limiter = new RedisRateLimiter(redis, metrics, new RedisCircuitBreaker(redis, metrics, properties), properties);
     }
 
     @Test
@@ -38,4 +46,80 @@ class RedisLoginRateLimiterTest {
         limiter.clear(email, ip);
         assertThat(limiter.isBlocked(email, ip)).isFalse();
     }
+
+    @Test
+    void acquireRateLimitShouldStopCountingAtLimit() {
+        String key = "RATE_LIMIT:TEST:" + System.nanoTime();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.acquireRateLimit(key, 60, 3)).isTrue();
+        }
+        assertThat(limiter.acquireRateLimit(key, 60, 3)).isFalse();
+
+        assertThat(redis.opsForValue().get(key)).isEqualTo("3");
+        assertThat(redis.getExpire(key)).isPositive();
+        redis.delete(key);
+    }
+
+    @Test
+    void shouldBlockIpSprayingManyEmailsWithEscalation() {
+        String ip = "10.0.0." + (System.nanoTime() % 250);
+        cleanupStuffing(ip);
+
+        limiter.recordFailure("victim1@example.com", ip);
+        limiter.recordFailure("victim2@example.com", ip);
+        assertThat(limiter.isBlocked("victim4@example.com", ip)).isFalse();
+
+        limiter.recordFailure("victim3@example.com", ip);
+        // IP diblok untuk email yang belum pernah dicoba sekalipun
+        assertThat(limiter.isBlocked("victim4@example.com", ip)).isTrue();
+        assertThat(redis.getExpire("STUFFING:BLOCK:IP:" + ip)).isBetween(14 * 60L, 15 * 60L);
+
+        // Pelanggaran kedua: durasi blok 2x
+        redis.delete("STUFFING:BLOCK:IP:" + ip);
+        limiter.recordFailure("victim5@example.com", ip);
+        assertThat(redis.getExpire("STUFFING:BLOCK:IP:" + ip)).isBetween(29 * 60L, 30 * 60L);
+
+        cleanupStuffing(ip);
+    }
+
+    @Test
+    void emailBlockShouldBeOffByDefault() {
+        String email = "target" + System.nanoTime() + "@example.com";
+
+        for (int i = 1; i <= 3; i++) {
+            limiter.recordFailure(email, "172.16.1." + i);
+        }
+
+        // Penyerang dari banyak IP tidak bisa mengunci akun orang lain
+        assertThat(limiter.isBlocked(email, "172.16.1.99")).isFalse();
+        assertThat(redis.hasKey("STUFFING:BLOCK:EMAIL:" + email)).isFalse();
+        for (int i = 1; i <= 3; i++) {
+            limiter.clear(email, "172.16.1." + i);
+        }
+    }
+
+    @Test
+    void shouldBlockEmailAttackedFromManyIpsExceptTrustedIp() {
+        properties.getCredentialStuffing().setEmailBlock(true);
+        String email = "target" + System.nanoTime() + "@example.com";
+        limiter.recordSuccess(email, "172.16.0.50");
+
+        for (int i = 1; i <= 3; i++) {
+            limiter.recordFailure(email, "172.16.0." + i);
+        }
+
+        assertThat(limiter.isBlocked(email, "172.16.0.99")).isTrue();
+        assertThat(limiter.isBlocked(email, "172.16.0.50")).isFalse();
+        redis.delete(redis.keys("STUFFING:*" + email + "*"));
+        for (int i = 1; i <= 3; i++) {
+            limiter.clear(email, "172.16.0." + i);
+        }
+    }
+
+    private void cleanupStuffing(String ip) {
+        redis.delete(redis.keys("STUFFING:*" + ip + "*"));
+        redis.delete(redis.keys("STUFFING:*victim*"));
+        redis.delete(redis.keys("RATE_LIMIT:LOGIN_FAIL:victim*"));
+    }
 }
@@ -0,0 +1,121 @@
+package com.ansy.library.security;
+
+import com.ansy.library.config.AppMetrics;
+import com.ansy.library.config.AppMetrics.TokenCheck;
+import com.ansy.library.config.AppMetrics.TokenType;
+import com.ansy.library.config.AppProperties;
+import com.ansy.library.config.RedisCircuitBreaker;
+import com.ansy.library.exception.RedisUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TokenGuardTest {
+
+    private final AppProperties properties = new AppProperties();
+    private TokenGuard guard;
+    private Instant expiresAt;
+
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    private final AppMetrics metrics = new AppMetrics(new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        properties.getTokenGuard().setMacSecret(Base64.getEncoder().encodeToString(new byte[32]));
+        guard = newGuard();
+        guard.init();
+        expiresAt = Instant.now().plus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private TokenGuard newGuard() {
+        return new TokenGuard(redis, new RedisCircuitBreaker(redis, metrics, properties), metrics, properties);
+    }
+
+    @Test
+    void issuedTokenShouldPassOnlyForItsTypeAndContext() {
+        String token = guard.issue(TokenType.REFRESH, expiresAt, "user.family");
+
+        assertThat(token).hasSize(TokenGuard.TOKEN_LENGTH);
+        assertThat(guard.check(TokenType.REFRESH, token, "user.family")).isEqualTo(TokenCheck.PASSED);
+        assertThat(guard.check(TokenType.REFRESH, token, "other.family")).isEqualTo(TokenCheck.FORGED);
+        assertThat(guard.check(TokenType.PASSWORD_RESET, token, "user.family")).isEqualTo(TokenCheck.FORGED);
+    }
+
+    @Test
+    void shouldRejectTamperedRandomAndExpiredTokensInMemory() {
+        String token = guard.issue(TokenType.VERIFICATION, expiresAt);
+        char flipped = token.charAt(0) == 'A' ? 'B' : 'A';
+
+        assertThat(guard.check(TokenType.VERIFICATION, flipped + token.substring(1), "")).isEqualTo(TokenCheck.FORGED);
+        assertThat(guard.check(TokenType.VERIFICATION, "x".repeat(TokenGuard.TOKEN_LENGTH), "")).isEqualTo(TokenCheck.FORGED);
+        assertThat(guard.check(TokenType.VERIFICATION, "not a token", "")).isEqualTo(TokenCheck.MALFORMED);
+        assertThat(guard.check(TokenType.VERIFICATION, "!".repeat(TokenGuard.TOKEN_LENGTH), "")).isEqualTo(TokenCheck.MALFORMED);
+
+        String expired = guard.issue(TokenType.VERIFICATION, Instant.now().minusSeconds(1));
+        assertThat(guard.check(TokenType.VERIFICATION, expired, "")).isEqualTo(TokenCheck.EXPIRED);
+    }
+
+    @Test
+    void consumedTokenShouldBeRejectedUntilItExpires() {
+        String token = guard.issue(TokenType.PASSWORD_RESET, expiresAt);
+        assertThat(guard.admit(TokenType.PASSWORD_RESET, token)).isTrue();
+
+        guard.consumed(token, expiresAt);
+        assertThat(guard.admit(TokenType.PASSWORD_RESET, token)).isFalse();
+
+        guard.consumed(token, Instant.now().minusSeconds(1));
+        guard.pruneConsumed();
+        assertThat(guard.check(TokenType.PASSWORD_RESET, token, "")).isEqualTo(TokenCheck.PASSED);
+    }
+
+    @Test
+    void legacyTokensShouldPassOnlyDuringTransition() {
+        String legacy = "a".repeat(TokenGuard.LEGACY_LENGTH);
+        assertThat(guard.check(TokenType.VERIFICATION, legacy, "")).isEqualTo(TokenCheck.LEGACY);
+
+        properties.getTokenGuard().setAcceptLegacy(false);
+        assertThat(guard.check(TokenType.VERIFICATION, legacy, "")).isEqualTo(TokenCheck.MALFORMED);
+    }
+
+    @Test
+    void configuredSecretShouldNotTouchRedis() {
+        assertThat(guard.check(TokenType.VERIFICATION, guard.issue(TokenType.VERIFICATION, expiresAt), ""))
+                .isEqualTo(TokenCheck.PASSED);
+        verifyNoInteractions(redis);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sharedKeyFromRedisShouldDegradeUntilRedisRecovers() {
+        String token = guard.issue(TokenType.PASSWORD_RESET, expiresAt);
+        properties.getTokenGuard().setMacSecret(null);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        when(values.get("TOKEN_MAC_KEY")).thenThrow(new RedisConnectionFailureException("down"));
+
+        TokenGuard degraded = newGuard();
+        degraded.init();
+
+        assertThat(degraded.check(TokenType.PASSWORD_RESET, token, "")).isEqualTo(TokenCheck.UNCHECKED);
+        assertThat(degraded.admit(TokenType.PASSWORD_RESET, token)).isTrue();
+        assertThatThrownBy(() -> degraded.issue(TokenType.PASSWORD_RESET, expiresAt))
+                .isInstanceOf(RedisUnavailableException.class);
+
+        doReturn(Base64.getEncoder().encodeToString(new byte[32])).when(values).get("TOKEN_MAC_KEY");
+        assertThat(degraded.check(TokenType.PASSWORD_RESET, token, "")).isEqualTo(TokenCheck.PASSED);
+    }
+}
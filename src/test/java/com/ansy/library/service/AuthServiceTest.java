@@ -1,29 +1,46 @@
 package com.ansy.library.service;
 
+import com.ansy.library.config.AppMetrics;
+import com.ansy.library.config.MessageCatalog;
 import com.ansy.library.dto.ForgotPasswordRequest;
+import com.ansy.library.dto.LoginRequest;
 import com.ansy.library.dto.RegisterRequest;
+import com.ansy.library.dto.ResetPasswordRequest;
+import com.ansy.library.entity.PasswordResetToken;
 import com.ansy.library.entity.Role;
 import com.ansy.library.entity.User;
 import com.ansy.library.entity.VerificationToken;
 import com.ansy.library.exception.RateLimitException;
+import com.ansy.library.exception.UnauthorizedException;
 import com.ansy.library.repository.PasswordResetTokenRepository;
 import com.ansy.library.repository.UserRepository;
 import com.ansy.library.repository.UserActivityAuditRepository;
 import com.ansy.library.repository.VerificationTokenRepository;
 import com.ansy.library.security.RedisRateLimiter;
+import com.ansy.library.security.TokenGuard;
+import com.ansy.library.utils.EmailValidatorUtil;
+import com.ansy.library.utils.TokenUtil;
 import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
-import org.springframework.context.MessageSource;
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mail.MailSendException;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.BooleanSupplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,7 +48,10 @@ import static org.mockito.Mockito.*;
 class AuthServiceTest {
 
     @Mock
-    private MessageSource messageSource;
+    private MessageCatalog messageCatalog;
+
+    @Mock
+    private AppMetrics metrics;
 
     @Mock
     private UserRepository userRepository;
@@ -57,22 +77,49 @@ class AuthServiceTest {
     @Mock
     private StringRedisTemplate redisTemplate;
 
+    @Mock
+    private EmailFilterService emailFilter;
+
+    @Mock
+    private TokenGuard tokenGuard;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private JwtService jwtService;
+
     @Mock
     private HttpServletRequest request;
 
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private AuthService authService;
 
+    private MockedStatic<EmailValidatorUtil> emailValidator;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Cek MX record butuh DNS, test tidak boleh bergantung jaringan
+        emailValidator = mockStatic(EmailValidatorUtil.class);
+        emailValidator.when(() -> EmailValidatorUtil.isEmailDomainValid(any())).thenReturn(true);
+        // Filter belum tahu: selalu cek DB
+        when(emailFilter.exists(any(), any())).thenAnswer(inv -> inv.<BooleanSupplier>getArgument(1).getAsBoolean());
+        when(tokenGuard.issue(any(), any())).thenReturn("issued-token");
+        when(tokenGuard.admit(any(), any())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        emailValidator.close();
     }
 
     @Test
     void registerSuccess() {
-        RegisterRequest registerRequest = new RegisterRequest();
-        registerRequest.setEmail("test@gmail.com");
-        registerRequest.setPassword("Password1!");
+        RegisterRequest registerRequest = new RegisterRequest("test@gmail.com", "Password1!");
 
         when(userRepository.existsByEmail("test@gmail.com")).thenReturn(false);
         when(auditRepository.countByIpAddressAndActivityTypeAndActivityTimeAfter(any(), any(), any())).thenReturn(0L);
@@ -86,19 +133,63 @@ class AuthServiceTest {
                 .role(Role.USER)
                 .build();
 
-        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
 
         assertDoesNotThrow(() -> authService.register(registerRequest, request));
 
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(transactionTemplate).execute(any());
+        verify(mailService).sendVerificationEmail(eq("test@gmail.com"), any());
+        verify(emailFilter).add("test@gmail.com");
+        verify(auditRepository).save(any());
+    }
+
+    @Test
+    void registerFail_MailErrorRemovesUserAfterCommit() {
+        RegisterRequest registerRequest = new RegisterRequest("test@gmail.com", "Password1!");
+
+        when(userRepository.existsByEmail("test@gmail.com")).thenReturn(false);
+        when(auditRepository.countByIpAddressAndActivityTypeAndActivityTimeAfter(any(), any(), any())).thenReturn(0L);
+        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
+        when(request.getHeader("User-Agent")).thenReturn("JUnit");
+        UUID userId = UUID.randomUUID();
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenReturn(User.builder().id(userId).email("test@gmail.com").role(Role.USER).build());
+        doThrow(new MailSendException("SMTP down")).when(mailService).sendVerificationEmail(any(), any());
+
+        assertThrows(MailSendException.class, () -> authService.register(registerRequest, request));
+
+        // SMTP dipanggil setelah transaksi commit, lalu user dihapus supaya bisa register ulang
+        InOrder order = inOrder(transactionTemplate, mailService, userRepository);
+        order.verify(transactionTemplate).execute(any());
+        order.verify(mailService).sendVerificationEmail(any(), any());
+        order.verify(userRepository).deleteById(userId);
+        verify(emailFilter, never()).add(any());
+        verify(auditRepository).save(any());
+    }
+
+    @Test
+    void registerFail_ConcurrentDuplicateRejectedByUniqueConstraint() {
+        RegisterRequest registerRequest = new RegisterRequest("test@gmail.com", "Password1!");
+
+        doReturn(false).when(emailFilter).exists(eq("test@gmail.com"), any());
+        when(auditRepository.countByIpAddressAndActivityTypeAndActivityTimeAfter(any(), any(), any())).thenReturn(0L);
+        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
+        when(request.getHeader("User-Agent")).thenReturn("JUnit");
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("users_email_key"));
+
+        assertThrows(IllegalStateException.class, () -> authService.register(registerRequest, request));
+
+        verify(userRepository, never()).existsByEmail(any());
+        verify(mailService, never()).sendVerificationEmail(any(), any());
+        verify(emailFilter, never()).add(any());
         verify(auditRepository).save(any());
     }
 
     @Test
     void registerFail_EmailAlreadyExists() {
-        RegisterRequest registerRequest = new RegisterRequest();
-        registerRequest.setEmail("test@gmail.com");
-        registerRequest.setPassword("Password1!");
+        RegisterRequest registerRequest = new RegisterRequest("test@gmail.com", "Password1!");
 
         when(userRepository.existsByEmail("test@gmail.com")).thenReturn(true);
         when(auditRepository.countByIpAddressAndActivityTypeAndActivityTimeAfter(any(), any(), any())).thenReturn(0L);
@@ -114,9 +205,7 @@ class AuthServiceTest {
 
     @Test
     void registerFail_RateLimitExceeded() {
-        RegisterRequest registerRequest = new RegisterRequest();
-        registerRequest.setEmail("test@gmail.com");
-        registerRequest.setPassword("Password1!");
+        RegisterRequest registerRequest = new RegisterRequest("test@gmail.com", "Password1!");
 
         when(auditRepository.countByIpAddressAndActivityTypeAndActivityTimeAfter(any(), any(), any())).thenReturn(99L);
         when(request.getRemoteAddr()).thenReturn("127.0.0.1");
@@ -136,13 +225,13 @@ class AuthServiceTest {
                 .build();
 
         VerificationToken token = VerificationToken.builder()
-                .token("valid-token")
+                .tokenHash(TokenUtil.sha256("valid-token"))
                 .user(user)
                 .used(false)
                 .expiresAt(Instant.now().plusSeconds(3600))
                 .build();
 
-        when(tokenRepository.findByToken("valid-token")).thenReturn(Optional.of(token));
+        when(tokenRepository.findByTokenHash(TokenUtil.sha256("valid-token"))).thenReturn(Optional.of(token));
 
         boolean result = authService.verifyEmail("valid-token");
 
@@ -156,13 +245,13 @@ class AuthServiceTest {
     @Test
     void verifyEmail_tokenExpiredOrUsed_fail() {
         VerificationToken token = VerificationToken.builder()
-                .token("expired-token")
+                .tokenHash(TokenUtil.sha256("expired-token"))
                 .used(true)
                 .expiresAt(Instant.now().minusSeconds(1))
                 .user(new User())
                 .build();
 
-        when(tokenRepository.findByToken("expired-token")).thenReturn(Optional.of(token));
+        when(tokenRepository.findByTokenHash(TokenUtil.sha256("expired-token"))).thenReturn(Optional.of(token));
 
         boolean result = authService.verifyEmail("expired-token");
 
@@ -172,7 +261,7 @@ class AuthServiceTest {
 
     @Test
     void verifyEmail_tokenNotFound_fail() {
-        when(tokenRepository.findByToken("not-found-token")).thenReturn(Optional.empty());
+        when(tokenRepository.findByTokenHash(TokenUtil.sha256("not-found-token"))).thenReturn(Optional.empty());
 
         boolean result = authService.verifyEmail("not-found-token");
 
@@ -180,6 +269,99 @@ class AuthServiceTest {
         verify(userRepository, never()).save(any());
     }
 
+    @Test
+    void resetPassword_usedToken_rememberedBeforeHashing() {
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        PasswordResetToken token = PasswordResetToken.builder()
+                .tokenHash(TokenUtil.sha256("used-token"))
+                .used(true)
+                .expiresAt(expiresAt)
+                .user(new User())
+                .build();
+
+        when(passwordResetTokenRepository.findByTokenHash(TokenUtil.sha256("used-token"))).thenReturn(Optional.of(token));
+        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
+
+        assertThrows(IllegalArgumentException.class, () ->
+                authService.resetPassword(new ResetPasswordRequest("used-token", "Password1"), request));
+
+        // Ditolak sebelum BCrypt & transaksi tulis; replay berikutnya ditolak TokenGuard tanpa query DB
+        verify(tokenGuard).consumed("used-token", expiresAt);
+        verify(transactionTemplate, never()).execute(any());
+        verify(auditRepository).save(any());
+    }
+
+    @Test
+    void resetPassword_success_revokesSessionsAndRefreshFamilies() {
+        User user = User.builder().id(UUID.randomUUID()).email("test@gmail.com").password("old").role(Role.USER).build();
+        PasswordResetToken token = PasswordResetToken.builder()
+                .tokenHash(TokenUtil.sha256("reset-token"))
+                .used(false)
+                .expiresAt(Instant.now().plusSeconds(600))
+                .user(user)
+                .build();
+
+        when(passwordResetTokenRepository.findByTokenHash(TokenUtil.sha256("reset-token"))).thenReturn(Optional.of(token));
+        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
+
+        authService.resetPassword(new ResetPasswordRequest("reset-token", "Password1"), request);
+
+        assertTrue(token.isUsed());
+        assertNotEquals("old", user.getPassword());
+        verify(redisSessionService).invalidateAllSessionUser(user.getId());
+        verify(refreshTokenService).revokeAll(user.getId());
+    }
+
+    @Test
+    void refreshToken_roleReadFromDatabase() {
+        UUID userId = UUID.randomUUID();
+        when(jwtService.getExpiration()).thenReturn(3600L);
+        when(refreshTokenService.rotate(eq("refresh-token"), any(), any(), isNull(), isNull()))
+                .thenReturn(new RefreshTokenService.Rotation(RefreshTokenService.Status.OK, userId, "rotated"));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(
+                User.builder().id(userId).email("test@gmail.com").role(Role.ADMIN).build()));
+
+        authService.refreshToken("refresh-token", request);
+
+        verify(jwtService).generateToken(eq(userId), eq("ADMIN"), any(), any(), any(), any());
+    }
+
+    @Test
+    void refreshToken_deletedUserRejected() {
+        UUID userId = UUID.randomUUID();
+        when(jwtService.getExpiration()).thenReturn(3600L);
+        when(refreshTokenService.rotate(eq("refresh-token"), any(), any(), isNull(), isNull()))
+                .thenReturn(new RefreshTokenService.Rotation(RefreshTokenService.Status.OK, userId, "rotated"));
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+
+        assertThrows(UnauthorizedException.class, () -> authService.refreshToken("refresh-token", request));
+        verify(jwtService, never()).generateToken(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void login_blockedClient_skipsUserLookup() {
+        when(request.getRemoteAddr()).thenReturn("10.0.0.1");
+        when(rateLimiter.isBlocked("test@gmail.com", "10.0.0.1")).thenReturn(true);
+
+        assertThrows(RateLimitException.class, () ->
+                authService.login(new LoginRequest("test@gmail.com", "Password1!"), request));
+
+        verify(userRepository, never()).findByEmailIgnoreCase(any());
+        verify(metrics).loginPhase(eq(AppMetrics.LoginPhase.RATE_LIMIT), anyLong());
+        verify(metrics, never()).loginPhase(eq(AppMetrics.LoginPhase.LOOKUP), anyLong());
+    }
+
+    @Test
+    void verifyEmail_tokenRejectedByGuard_skipsDatabase() {
+        when(tokenGuard.admit(AppMetrics.TokenType.VERIFICATION, "forged-token")).thenReturn(false);
+
+        boolean result = authService.verifyEmail("forged-token");
+
+        assertFalse(result);
+        verify(tokenRepository, never()).findByTokenHash(any());
+        verify(transactionTemplate, never()).execute(any());
+    }
+
     @Test
     void logout_shouldInvalidateSessionAndLogAudit() {
         String userId = UUID.randomUUID().toString();
@@ -0,0 +1,77 @@
+package com.ansy.library.service;
+
+import com.ansy.library.config.AppMetrics;
+import com.ansy.library.config.AppProperties;
+import com.ansy.library.config.RedisCircuitBreaker;
+import com.ansy.library.service.CatalogVersionService.CatalogVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.redis.DataRedisTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataRedisTest
+class CatalogVersionServiceTest {
+
+    @Autowired
+    private StringRedisTemplate redis;
+
+    private CatalogVersionService catalogVersion;
+
+    @BeforeEach
+    void setup() {
+        redis.delete(CatalogVersionService.KEY);
+        AppMetrics metrics = new AppMetrics(new SimpleMeterRegistry());
+        AppProperties properties = new AppProperties();
+        catalogVersion = new CatalogVersionService(redis, new RedisCircuitBreaker(redis, metrics, properties), properties);
+    }
+
+    @AfterEach
+    void cleanup() {
+        redis.delete(CatalogVersionService.KEY);
+    }
+
+    @Test
+    void bumpShouldChangeEtagAndMoveLastModifiedBySeconds() {
+        CatalogVersion first = catalogVersion.current();
+        assertThat(first).isNotNull();
+        assertThat(catalogVersion.current()).isEqualTo(first);
+
+        catalogVersion.bump();
+        CatalogVersion second = catalogVersion.current();
+
+        assertThat(second.version()).isEqualTo(first.version() + 1);
+        assertThat(second.modifiedMillis()).isGreaterThanOrEqualTo(first.modifiedMillis() + 1000);
+        assertThat(second.etag("en")).isNotEqualTo(first.etag("en")).startsWith("W/\"");
+        assertThat(second.etag("en")).isNotEqualTo(second.etag("id"));
+    }
+
+    @Test
+    void bumpInsideTransactionShouldWaitForCommit() {
+        CatalogVersion before = catalogVersion.current();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            catalogVersion.bump();
+            assertThat(catalogVersion.current()).isEqualTo(before);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(catalogVersion.current().version()).isEqualTo(before.version() + 1);
+    }
+
+    @Test
+    void malformedValueShouldDisableEtag() {
+        assertThat(CatalogVersionService.parse("not-a-version")).isNull();
+        assertThat(CatalogVersionService.parse("")).isNull();
+        assertThat(CatalogVersionService.parse("3:1700000000000")).isEqualTo(new CatalogVersion(3, 1_700_000_000_000L));
+    }
+}
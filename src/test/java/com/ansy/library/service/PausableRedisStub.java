@@ -0,0 +1,155 @@
+package com.ansy.library.service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server RESP2 minimal (PING, GET, SET, SETEX, PSETEX, EXISTS, DEL) untuk fault injection.
+ * Expiry (SET EX/PX, SETEX, PSETEX) diterima tapi diabaikan, key hidup sampai stub ditutup.
+ * Saat di-pause, command tetap diterima tapi reply ditahan sampai resume (Redis hang / GC pause / jaringan macet).
+ */
+class PausableRedisStub implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final Map<String, String> data = new ConcurrentHashMap<>();
+    private final Object pauseLock = new Object();
+    private volatile boolean paused;
+
+    PausableRedisStub() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "redis-stub-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return server.getLocalPort();
+    }
+
+    void put(String key, String value) {
+        data.put(key, value);
+    }
+
+    void pause() {
+        paused = true;
+    }
+
+    void resume() {
+        synchronized (pauseLock) {
+            paused = false;
+            pauseLock.notifyAll();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        resume();
+        server.close();
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread handler = new Thread(() -> handle(socket), "redis-stub-connection");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket; InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = socket.getOutputStream()) {
+            List<String> command;
+            while ((command = readCommand(in)) != null) {
+                String reply = execute(command);
+                awaitResume();
+                out.write(reply.getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+        } catch (IOException | InterruptedException e) {
+            // koneksi ditutup client
+        }
+    }
+
+    private void awaitResume() throws InterruptedException {
+        synchronized (pauseLock) {
+            while (paused) {
+                pauseLock.wait();
+            }
+        }
+    }
+
+    private String execute(List<String> command) {
+        String name = command.get(0).toUpperCase();
+        return switch (name) {
+            case "PING" -> "+PONG\r\n";
+            case "GET" -> {
+                String value = data.get(command.get(1));
+                yield value == null ? "$-1\r\n" : "$" + value.length() + "\r\n" + value + "\r\n";
+            }
+            case "SET" -> {
+                // Opsi EX/PX/KEEPTTL diabaikan; NX/XX tidak dipakai kode aplikasi yang diuji di sini
+                data.put(command.get(1), command.get(2));
+                yield "+OK\r\n";
+            }
+            case "SETEX", "PSETEX" -> {
+                // SETEX key seconds value / PSETEX key millis value (RedisTemplate.set(key, value, Duration))
+                data.put(command.get(1), command.get(3));
+                yield "+OK\r\n";
+            }
+            case "EXISTS", "DEL" -> {
+                long count = 0;
+                for (String key : command.subList(1, command.size())) {
+                    boolean present = name.equals("DEL") ? data.remove(key) != null : data.containsKey(key);
+                    count += present ? 1 : 0;
+                }
+                yield ":" + count + "\r\n";
+            }
+            default -> "-ERR unknown command '" + command.get(0) + "'\r\n";
+        };
+    }
+
+    // Format request RESP: *<n>\r\n lalu n x $<len>\r\n<arg>\r\n
+    private static List<String> readCommand(InputStream in) throws IOException {
+        String header = readLine(in);
+        if (header == null) {
+            return null;
+        }
+        int count = Integer.parseInt(header.substring(1));
+        List<String> args = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = Integer.parseInt(readLine(in).substring(1));
+            byte[] arg = in.readNBytes(length);
+            in.readNBytes(2);
+            args.add(new String(arg, StandardCharsets.UTF_8));
+        }
+        return args;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\r') {
+                in.read();
+                return line.toString();
+            }
+            line.append((char) c);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,143 @@
+package com.ansy.library.service;
+
+import com.ansy.library.config.AppMetrics;
+import com.ansy.library.config.AppProperties;
+import com.ansy.library.config.RedisCircuitBreaker;
+import com.ansy.library.exception.RedisUnavailableException;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Redis "hang" disimulasikan dengan stub yang menahan reply. Yang diuji: latency cek session tetap
+ * terbatas, circuit open setelah threshold, fallback TRUST_JWT menghormati revoke, dan recovery lewat probe.
+ */
+class RedisSessionServiceFaultInjectionTest {
+
+    private static final Duration COMMAND_TIMEOUT = Duration.ofMillis(100);
+    private static final int FAILURE_THRESHOLD = 3;
+
+    private PausableRedisStub stub;
+    private LettuceConnectionFactory connectionFactory;
+    private AppProperties properties;
+    private RedisCircuitBreaker circuitBreaker;
+    private RedisSessionService sessionService;
+
+    private final UUID userId = UUID.randomUUID();
+    private final String sessionId = UUID.randomUUID().toString();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new PausableRedisStub();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("127.0.0.1", stub.port()),
+                LettuceClientConfiguration.builder()
+                        .commandTimeout(COMMAND_TIMEOUT)
+                        .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                        .build());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+
+        properties = new AppProperties();
+        properties.setJwtExpiration(3600L);
+        properties.getRedisResilience().setFailureThreshold(FAILURE_THRESHOLD);
+
+        circuitBreaker = new RedisCircuitBreaker(template, new AppMetrics(new SimpleMeterRegistry()), properties);
+        sessionService = new RedisSessionService(template, circuitBreaker, properties);
+        sessionService.storeSession(userId, sessionId, Instant.now().plusSeconds(3600));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        stub.resume();
+        connectionFactory.destroy();
+        stub.close();
+    }
+
+    @Test
+    void pausedRedis_opensCircuitAndKeepsLatencyBounded() {
+        stub.pause();
+
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            long start = System.nanoTime();
+            assertThat(sessionService.sessionExists(userId, sessionId)).isTrue();
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(COMMAND_TIMEOUT.multipliedBy(5));
+        }
+        assertThat(circuitBreaker.isOpen()).isTrue();
+
+        // Circuit open: tidak menunggu Redis sama sekali
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            assertThat(sessionService.sessionExists(userId, sessionId)).isTrue();
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(COMMAND_TIMEOUT);
+    }
+
+    @Test
+    void trustJwtFallback_stillRejectsRevokedSessions() {
+        String otherSession = UUID.randomUUID().toString();
+        sessionService.storeSession(userId, otherSession, Instant.now().plusSeconds(3600));
+        sessionService.invalidateSession(userId, sessionId);
+
+        tripCircuit();
+
+        assertThat(sessionService.sessionExists(userId, sessionId)).isFalse();
+        assertThat(sessionService.sessionExists(userId, otherSession)).isTrue();
+    }
+
+    @Test
+    void rejectFallback_rejectsEverySessionWhileDegraded() {
+        properties.getRedisResilience().setSessionFallback(AppProperties.SessionFallback.REJECT);
+
+        tripCircuit();
+
+        assertThat(sessionService.sessionExists(userId, sessionId)).isFalse();
+    }
+
+    @Test
+    void writesWithoutFallback_failFastWhileDegraded() {
+        tripCircuit();
+
+        assertThatThrownBy(() -> sessionService.storeSession(userId, "new", Instant.now().plusSeconds(60)))
+                .isInstanceOf(RedisUnavailableException.class);
+    }
+
+    @Test
+    void probe_closesCircuitAfterRecovery() {
+        tripCircuit();
+
+        circuitBreaker.probe();
+        assertThat(circuitBreaker.isOpen()).isTrue();
+
+        stub.resume();
+        circuitBreaker.probe();
+        assertThat(circuitBreaker.isOpen()).isFalse();
+
+        sessionService.invalidateSession(userId, sessionId);
+        assertThat(sessionService.sessionExists(userId, sessionId)).isFalse();
+        assertThat(sessionService.sessionExists(userId, UUID.randomUUID().toString())).isFalse();
+    }
+
+    private void tripCircuit() {
+        stub.pause();
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            sessionService.sessionExists(userId, UUID.randomUUID().toString());
+        }
+        assertThat(circuitBreaker.isOpen()).isTrue();
+    }
+}
@@ -0,0 +1,109 @@
+package com.ansy.library.service;
+
+import com.ansy.library.config.AppMetrics;
+import com.ansy.library.config.AppProperties;
+import com.ansy.library.config.RedisCircuitBreaker;
+import com.ansy.library.security.TokenGuard;
+import com.ansy.library.service.RefreshTokenService.Rotation;
+import com.ansy.library.service.RefreshTokenService.Status;
+import com.ansy.library.utils.TokenUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.redis.DataRedisTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataRedisTest
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private StringRedisTemplate redis;
+
+    private RefreshTokenService service;
+    private UUID userId;
+    private Instant sessionExpiredAt;
+
+    @BeforeEach
+    void setup() {
+        AppMetrics metrics = new AppMetrics(new SimpleMeterRegistry());
+        AppProperties properties = new AppProperties();
+        properties.getTokenGuard().setMacSecret(Base64.getEncoder().encodeToString(new byte[32]));
+        RedisCircuitBreaker circuitBreaker = new RedisCircuitBreaker(redis, metrics, properties);
+        TokenGuard tokenGuard = new TokenGuard(redis, circuitBreaker, metrics, properties);
+        tokenGuard.init();
+        service = new RefreshTokenService(redis, circuitBreaker, tokenGuard);
+        userId = UUID.randomUUID();
+        sessionExpiredAt = Instant.now().plusSeconds(3600);
+    }
+
+    @AfterEach
+    void cleanup() {
+        Set<String> keys = redis.keys("*" + userId + "*");
+        if (!keys.isEmpty()) {
+            redis.delete(keys);
+        }
+    }
+
+    @Test
+    void issueAndRotateShouldMoveSessionToNewToken() {
+        String token = service.issueOnLogin(userId, "s1", sessionExpiredAt, "LOGIN_FAIL:test:" + userId);
+        assertThat(redis.hasKey(RedisSessionService.sessionKey(userId, "s1"))).isTrue();
+        assertThat(redis.getExpire(tokenKey(token))).isPositive()
+                .isLessThanOrEqualTo(RefreshTokenService.REFRESH_TTL.toSeconds());
+
+        Rotation rotation = service.rotate(token, "s2", sessionExpiredAt, userId, "s1");
+
+        assertThat(rotation.status()).isEqualTo(Status.OK);
+        assertThat(rotation.userId()).isEqualTo(userId);
+        assertThat(rotation.refreshToken()).isNotEqualTo(token).startsWith(userId + ".");
+        assertThat(redis.hasKey(RedisSessionService.sessionKey(userId, "s2"))).isTrue();
+        assertThat(redis.hasKey(RedisSessionService.sessionKey(userId, "s1"))).isFalse();
+    }
+
+    @Test
+    void reuseShouldRevokeWholeFamily() {
+        String token = service.issueOnLogin(userId, "s1", sessionExpiredAt, "LOGIN_FAIL:test:" + userId);
+        String rotated = service.rotate(token, "s2", sessionExpiredAt, null, null).refreshToken();
+
+        assertThat(service.rotate(token, "s3", sessionExpiredAt, null, null).status()).isEqualTo(Status.REUSED);
+        assertThat(service.rotate(rotated, "s4", sessionExpiredAt, null, null).status()).isEqualTo(Status.REVOKED);
+    }
+
+    @Test
+    void revokeAllShouldRejectExistingFamiliesButNotNewLogins() {
+        String first = service.issueOnLogin(userId, "s1", sessionExpiredAt, "LOGIN_FAIL:test:" + userId);
+        String second = service.issueOnLogin(userId, "s2", sessionExpiredAt, "LOGIN_FAIL:test:" + userId);
+
+        service.revokeAll(userId);
+
+        assertThat(service.rotate(first, "s3", sessionExpiredAt, null, null).status()).isEqualTo(Status.REVOKED);
+        assertThat(service.rotate(second, "s4", sessionExpiredAt, null, null).status()).isEqualTo(Status.REVOKED);
+        String afterReset = service.issueOnLogin(userId, "s5", sessionExpiredAt, "LOGIN_FAIL:test:" + userId);
+        assertThat(service.rotate(afterReset, "s6", sessionExpiredAt, null, null).status()).isEqualTo(Status.OK);
+    }
+
+    @Test
+    void expiredOrForeignTokenShouldBeInvalid() {
+        String token = service.issueOnLogin(userId, "s1", sessionExpiredAt, "LOGIN_FAIL:test:" + userId);
+        String foreign = UUID.randomUUID() + token.substring(token.indexOf('.'));
+        assertThat(service.rotate(foreign, "s2", sessionExpiredAt, null, null).status()).isEqualTo(Status.INVALID);
+
+        // TTL habis = key token hilang dari Redis
+        redis.delete(tokenKey(token));
+        assertThat(service.rotate(token, "s3", sessionExpiredAt, null, null).status()).isEqualTo(Status.INVALID);
+    }
+
+    private static String tokenKey(String token) {
+        return "REFRESH:" + HexFormat.of().formatHex(TokenUtil.sha256(token));
+    }
+}
@@ -0,0 +1,69 @@
+package com.ansy.library.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    @Test
+    void shouldNeverReturnFalseNegative() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i + "@gmail.com");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user" + i + "@gmail.com")).isTrue();
+        }
+        assertThat(filter.insertions()).isEqualTo(10_000);
+    }
+
+    @Test
+    void falsePositiveRateShouldStayNearTarget() {
+        BloomFilter filter = new BloomFilter(50_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filter.add("user" + i + "@gmail.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("new" + i + "@yahoo.com")) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.015);
+        assertThat(filter.expectedFalsePositiveRate()).isBetween(0.005, 0.015);
+        // ~9.6 bit per elemen untuk 1%
+        assertThat(filter.sizeInBytes()).isBetween(55_000L, 65_000L);
+        assertThat(filter.hashCount()).isEqualTo(7);
+    }
+
+    @Test
+    void redisBitmapShouldUseSetbitBitOrder() {
+        BloomFilter filter = new BloomFilter(100, 1);
+        filter.add("a@gmail.com");
+        long offset = filter.bitOffsets("a@gmail.com")[0];
+
+        byte[] bitmap = filter.toRedisBitmap();
+
+        assertThat(bitmap).hasSize(13);
+        // SETBIT key 0 1 = byte pertama 0x80
+        assertThat(bitmap[(int) (offset / 8)] & 0xFF).isEqualTo(0x80 >>> (offset % 8));
+    }
+
+    @Test
+    void bitOffsetsShouldBeStableAcrossInstances() {
+        BloomFilter a = new BloomFilter(1_000_000, 0.01);
+        BloomFilter b = new BloomFilter(1_000_000, 0.01);
+
+        assertThat(a.bitOffsets("same@gmail.com")).containsExactly(b.bitOffsets("same@gmail.com"));
+    }
+
+    @Test
+    void shouldRejectInvalidParameters() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(1000, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
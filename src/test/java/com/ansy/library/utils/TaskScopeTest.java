@@ -0,0 +1,80 @@
+package com.ansy.library.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskScopeTest {
+
+    @Test
+    void shouldRunForkedTasksInParallel() {
+        long start = System.nanoTime();
+        try (TaskScope scope = TaskScope.open()) {
+            Supplier<String> a = scope.fork(() -> {
+                Thread.sleep(200);
+                return "a";
+            });
+            Supplier<String> b = scope.fork(() -> {
+                Thread.sleep(200);
+                return "b";
+            });
+            scope.join();
+
+            assertThat(a.get() + b.get()).isEqualTo("ab");
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(380));
+    }
+
+    @Test
+    void shouldCancelSiblingsAndRethrowFirstFailure() {
+        AtomicBoolean siblingInterrupted = new AtomicBoolean();
+        CountDownLatch siblingStarted = new CountDownLatch(1);
+
+        try (TaskScope scope = TaskScope.open()) {
+            scope.fork(() -> {
+                siblingStarted.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    siblingInterrupted.set(true);
+                }
+                return null;
+            });
+            scope.fork(() -> {
+                siblingStarted.await();
+                throw new IllegalArgumentException("boom");
+            });
+
+            assertThatThrownBy(scope::join)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("boom");
+        }
+        assertThat(siblingInterrupted).isTrue();
+    }
+
+    @Test
+    void closeWithoutJoinShouldInterruptRunningTasks() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        try (TaskScope scope = TaskScope.open()) {
+            scope.fork(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                }
+                return null;
+            });
+            started.await();
+        }
+        assertThat(interrupted).isTrue();
+    }
+}
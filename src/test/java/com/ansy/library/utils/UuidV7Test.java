@@ -0,0 +1,27 @@
+package com.ansy.library.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7Test {
+
+    @Test
+    void shouldSetVersionAndVariant() {
+        UUID id = UuidV7.generate();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldBeOrderedByTimestamp() {
+        UUID older = UuidV7.generate(1_700_000_000_000L);
+        UUID newer = UuidV7.generate(1_700_000_000_001L);
+
+        assertThat(older.toString()).isLessThan(newer.toString());
+        assertThat(older.getMostSignificantBits() >>> 16).isEqualTo(1_700_000_000_000L);
+    }
+}